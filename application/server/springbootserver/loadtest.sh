@@ -0,0 +1,115 @@
+#!/usr/bin/env bash
+# 接口压测，见 M2_FABRIC_GATEWAY.md「压测」：
+#   MODE=query（默认）：先创建一批房产，再在多个并发档位下随机查询，输出每档的延迟分布和 fabric.evaluate.latency，
+#                       用于调整 fabric.organizations.<org>.grpc.poolSize 等连接参数；
+#   MODE=submit：在多个并发档位下同步创建房产（每个请求阻塞到上链），输出每档的延迟分布、吞吐、非 2xx 数和 JVM 线程数，
+#                分别以 app.virtualThreads=false / true 启动服务各跑一次，对比平台线程与虚拟线程下阻塞提交的容量。
+set -euo pipefail
+
+BASE_URL="${BASE_URL:-http://localhost:8888}"
+MODE="${MODE:-query}"                    # query | submit
+IDS="${IDS:-1000}"                       # 房产数量，需远大于并发数，避免查询缓存/合并吸收请求
+CONCURRENCY="${CONCURRENCY:-16 64 256}"  # 并发档位
+DURATION="${DURATION:-30s}"              # 每档持续时间
+THREADS="${THREADS:-4}"                  # wrk 线程数
+PREFIX="${PREFIX:-LOAD}"                 # 房产 ID 前缀；同一前缀重复执行时跳过已存在的房产
+SKIP_SEED="${SKIP_SEED:-false}"
+
+usage() {
+  cat <<EOF
+Usage:
+  $(basename "$0")               # 创建 \${IDS} 个房产后按 \${CONCURRENCY} 各压 \${DURATION} 查询
+  MODE=submit $(basename "$0")   # 按 \${CONCURRENCY} 各压 \${DURATION} 同步创建房产
+
+Environment:
+  BASE_URL=${BASE_URL} MODE=${MODE} IDS=${IDS} CONCURRENCY="${CONCURRENCY}" DURATION=${DURATION}
+  THREADS=${THREADS} PREFIX=${PREFIX} SKIP_SEED=${SKIP_SEED}
+
+依赖 curl 与 wrk；对比时保持 app.queryCacheEnabled / app.readModelEnabled 关闭（默认），让每次请求都落到 peer。
+submit 模式会真实上链，请在测试网络上执行。
+EOF
+}
+
+if [[ "${1:-}" == "-h" || "${1:-}" == "--help" ]]; then
+  usage
+  exit 0
+fi
+
+for cmd in curl wrk; do
+  if ! command -v "${cmd}" &>/dev/null; then
+    echo "未找到 ${cmd}" >&2
+    exit 1
+  fi
+done
+
+seed() {
+  echo "创建房产 ${PREFIX}-0 .. ${PREFIX}-$((IDS - 1))"
+  for ((i = 0; i < IDS; i++)); do
+    id="${PREFIX}-${i}"
+    status=$(curl -s -o /dev/null -w '%{http_code}' "${BASE_URL}/api/realty-agency/realty/${id}")
+    if [[ "${status}" == "200" ]]; then
+      continue
+    fi
+    # async=true 只等背书和发往排序节点，批量创建不必逐笔等待上链
+    curl -sf -o /dev/null -X POST "${BASE_URL}/api/realty-agency/realty/create?async=true" \
+      -H 'Content-Type: application/json' \
+      -d "{\"id\":\"${id}\",\"address\":\"压测地址${i}\",\"area\":100,\"owner\":\"load\"}"
+  done
+  # 等最后一批上链
+  sleep 5
+}
+
+metric() {
+  curl -s "${BASE_URL}/actuator/metrics/$1" | tr -d '\n' || true
+  echo
+}
+
+script="$(mktemp)"
+trap 'rm -f "${script}"' EXIT
+
+if [[ "${MODE}" == "submit" ]]; then
+  run="$(date +%s)"
+  # 每个 wrk 线程有独立的 Lua 状态，ID 由 setup 分配的线程号和线程内计数拼成，保证不重复
+  cat > "${script}" <<EOF
+local threads = 0
+setup = function(thread)
+  thread:set("tid", threads)
+  threads = threads + 1
+end
+init = function(args)
+  n = 0
+end
+request = function()
+  n = n + 1
+  local id = "${PREFIX}-S${run}-" .. tid .. "-" .. n
+  local body = '{"id":"' .. id .. '","address":"压测地址","area":100,"owner":"load"}'
+  return wrk.format("POST", "/api/realty-agency/realty/create", {["Content-Type"] = "application/json"}, body)
+end
+EOF
+  for c in ${CONCURRENCY}; do
+    threads=$(( c < THREADS ? c : THREADS ))
+    echo "==== 同步提交，并发 ${c}，持续 ${DURATION} ===="
+    wrk -t"${threads}" -c"${c}" -d"${DURATION}" --timeout 90s --latency -s "${script}" "${BASE_URL}"
+    echo "jvm.threads.live: $(metric jvm.threads.live)"
+    echo "jvm.threads.peak: $(metric jvm.threads.peak)"
+  done
+  exit 0
+fi
+
+if [[ "${SKIP_SEED}" != "true" ]]; then
+  seed
+fi
+
+cat > "${script}" <<EOF
+math.randomseed(os.time())
+request = function()
+  return wrk.format("GET", "/api/realty-agency/realty/${PREFIX}-" .. math.random(0, ${IDS} - 1))
+end
+EOF
+
+for c in ${CONCURRENCY}; do
+  threads=$(( c < THREADS ? c : THREADS ))
+  echo "==== 并发 ${c}，持续 ${DURATION} ===="
+  wrk -t"${threads}" -c"${c}" -d"${DURATION}" --latency -s "${script}" "${BASE_URL}"
+  echo "fabric.evaluate.latency: $(metric fabric.evaluate.latency)"
+done
@@ -0,0 +1,56 @@
+package com.togettoyou.fabricrealty.springbootserver.api;
+
+import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockTransactionDto;
+import com.togettoyou.fabricrealty.springbootserver.common.ApiResponse;
+import com.togettoyou.fabricrealty.springbootserver.common.QueryParamUtils;
+import com.togettoyou.fabricrealty.springbootserver.service.BlockQueryService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 各组织 Controller 下 {@code /block/**} 接口的共用实现：解析请求参数，按构造时给定的组织查询区块。
+ */
+final class BlockEndpoints {
+    private final BlockQueryService blockQueryService;
+    private final String orgName;
+
+    BlockEndpoints(BlockQueryService blockQueryService, String orgName) {
+        this.blockQueryService = blockQueryService;
+        this.orgName = orgName;
+    }
+
+    ResponseEntity<byte[]> blockList(String pageSize, String pageNum, String channel) {
+        int pageSizeValue = QueryParamUtils.parseIntOrZero(pageSize == null ? "10" : pageSize);
+        int pageNumValue = QueryParamUtils.parseIntOrZero(pageNum == null ? "1" : pageNum);
+
+        pageSizeValue = QueryParamUtils.normalizePositive(pageSizeValue, 10);
+        pageNumValue = QueryParamUtils.normalizePositive(pageNumValue, 1);
+
+        return BlockHttpCaching.blockList(blockQueryService.queryBlockList(orgName, pageSizeValue, pageNumValue, channel(channel)));
+    }
+
+    SseEmitter stream(String channel, String lastEventId) {
+        return blockQueryService.streamBlocks(orgName, lastEventId, channel(channel));
+    }
+
+    ApiResponse<BlockTransactionDto> transaction(String txId, String channel) {
+        return ApiResponse.success(blockQueryService.queryBlockTransaction(orgName, txId, channel(channel)));
+    }
+
+    ResponseEntity<ApiResponse<List<BlockTransactionDto>>> transactions(long blockNum, String channel) {
+        return BlockHttpCaching.blockTransactions(blockQueryService.queryBlockTransactions(orgName, blockNum, channel(channel)));
+    }
+
+    void rawBlock(long blockNum, String channel, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        RawBlockResponses.send(blockQueryService.queryRawBlock(orgName, blockNum, channel(channel)), request, response);
+    }
+
+    private static String channel(String channel) {
+        return channel == null ? "" : channel;
+    }
+}
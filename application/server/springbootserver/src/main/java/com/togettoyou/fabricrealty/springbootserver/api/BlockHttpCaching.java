@@ -0,0 +1,52 @@
+package com.togettoyou.fabricrealty.springbootserver.api;
+
+import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockTransactionDto;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockListPage;
+import com.togettoyou.fabricrealty.springbootserver.common.ApiResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 区块类接口的 HTTP 缓存头。
+ * <p>
+ * {@code /block/list} 随最新区块号变化，带 ETag / Last-Modified 并要求每次重新验证，客户端条件请求命中时由
+ * Spring MVC 直接返回 304；单个区块的内容落库后不再变化，按 immutable 长期缓存。
+ */
+final class BlockHttpCaching {
+    static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    private BlockHttpCaching() {
+    }
+
+    static ResponseEntity<byte[]> blockList(BlockListPage page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag(page));
+        if (page.lastModified() > 0) {
+            builder.lastModified(page.lastModified());
+        }
+        return builder.body(page.json());
+    }
+
+    /**
+     * 区块未建交易索引时返回空列表，这种结果以后可能变化，不标记 immutable。
+     */
+    static ResponseEntity<ApiResponse<List<BlockTransactionDto>>> blockTransactions(List<BlockTransactionDto> transactions) {
+        if (transactions.isEmpty()) {
+            return ResponseEntity.ok(ApiResponse.success(transactions));
+        }
+        return ResponseEntity.ok().cacheControl(IMMUTABLE).body(ApiResponse.success(transactions));
+    }
+
+    /**
+     * 最新区块号 + 分页窗口；区块数一并计入，回填补进窗口内缺失的区块时 ETag 也会变化。
+     */
+    private static String etag(BlockListPage page) {
+        return "\"" + page.latestBlockNum() + "-" + page.pageSize() + "-" + page.pageNum() + "-" + page.blockCount() + "\"";
+    }
+}
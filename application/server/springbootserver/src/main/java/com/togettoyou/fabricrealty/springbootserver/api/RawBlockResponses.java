@@ -0,0 +1,52 @@
+package com.togettoyou.fabricrealty.springbootserver.api;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.ArchivedBlock;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 把归档中的原始区块字节写回响应。
+ * <p>
+ * Tomcat NIO 连接器支持 sendfile 时交给容器直接从段文件发往 socket（内核零拷贝）；否则用 FileChannel.transferTo 写入响应流。
+ */
+final class RawBlockResponses {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private RawBlockResponses() {
+    }
+
+    static void send(ArchivedBlock block, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/octet-stream");
+        response.setContentLengthLong(block.length());
+        response.setHeader("Content-Disposition", "attachment; filename=\"block-" + block.blockNum() + ".block\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, BlockHttpCaching.IMMUTABLE.getHeaderValue());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, block.segment().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, block.offset());
+            request.setAttribute(SENDFILE_END, block.offset() + block.length());
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(block.segment(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = block.offset();
+            long remaining = block.length();
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
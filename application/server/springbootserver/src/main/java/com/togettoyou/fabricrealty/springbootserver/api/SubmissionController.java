@@ -0,0 +1,24 @@
+package com.togettoyou.fabricrealty.springbootserver.api;
+
+import com.togettoyou.fabricrealty.springbootserver.api.dto.SubmissionDto;
+import com.togettoyou.fabricrealty.springbootserver.common.ApiResponse;
+import com.togettoyou.fabricrealty.springbootserver.service.SubmissionTracker;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/submission")
+public class SubmissionController {
+    private final SubmissionTracker tracker;
+
+    public SubmissionController(SubmissionTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @GetMapping("/{txId}")
+    public ApiResponse<SubmissionDto> querySubmission(@PathVariable String txId) {
+        return ApiResponse.success(tracker.find(txId));
+    }
+}
@@ -1,48 +1,69 @@
 package com.togettoyou.fabricrealty.springbootserver.api;
 
-import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockQueryResultDto;
+import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockTransactionDto;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.CreateTransactionRequest;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.QueryResultDto;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.RealEstateDto;
+import com.togettoyou.fabricrealty.springbootserver.api.dto.SubmissionDto;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.TransactionDto;
 import com.togettoyou.fabricrealty.springbootserver.common.ApiResponse;
 import com.togettoyou.fabricrealty.springbootserver.common.QueryParamUtils;
+import com.togettoyou.fabricrealty.springbootserver.service.BlockQueryService;
 import com.togettoyou.fabricrealty.springbootserver.service.TradingPlatformService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/trading-platform")
 public class TradingPlatformController {
     private final TradingPlatformService service;
+    private final BlockEndpoints blocks;
 
-    public TradingPlatformController(TradingPlatformService service) {
+    public TradingPlatformController(TradingPlatformService service, BlockQueryService blockQueryService) {
         this.service = service;
+        this.blocks = new BlockEndpoints(blockQueryService, TradingPlatformService.TRADE_ORG);
     }
 
     @PostMapping("/transaction/create")
-    public ApiResponse<Void> createTransaction(@RequestBody CreateTransactionRequest request) {
-        service.createTransaction(request);
-        return ApiResponse.successMessage("交易创建成功");
+    public CompletableFuture<ResponseEntity<ApiResponse<SubmissionDto>>> createTransaction(
+            @RequestBody CreateTransactionRequest request,
+            @RequestParam(value = "async", required = false, defaultValue = "false") boolean async
+    ) {
+        if (async) {
+            return service.createTransactionAsync(request)
+                    .thenApply(submission -> ResponseEntity.accepted().body(ApiResponse.successMessage("交易已提交", submission)));
+        }
+        return service.createTransaction(request)
+                .thenApply(ignored -> ResponseEntity.ok(ApiResponse.successMessage("交易创建成功", null)));
     }
 
     @GetMapping("/realty/{id}")
-    public ApiResponse<RealEstateDto> queryRealEstate(@PathVariable String id) {
-        return ApiResponse.success(service.queryRealEstate(id));
+    public CompletableFuture<ApiResponse<RealEstateDto>> queryRealEstate(@PathVariable String id) {
+        return service.queryRealEstate(id).thenApply(ApiResponse::success);
     }
 
     @GetMapping("/transaction/{txId}")
-    public ApiResponse<TransactionDto> queryTransaction(@PathVariable String txId) {
-        return ApiResponse.success(service.queryTransaction(txId));
+    public CompletableFuture<ApiResponse<TransactionDto>> queryTransaction(@PathVariable String txId) {
+        return service.queryTransaction(txId).thenApply(ApiResponse::success);
     }
 
     @GetMapping("/transaction/list")
-    public ApiResponse<QueryResultDto<TransactionDto>> queryTransactionList(
+    public CompletableFuture<ApiResponse<QueryResultDto<TransactionDto>>> queryTransactionList(
             @RequestParam(value = "pageSize", required = false) String pageSize,
             @RequestParam(value = "bookmark", required = false) String bookmark,
             @RequestParam(value = "status", required = false) String status
@@ -50,21 +71,49 @@ public class TradingPlatformController {
         int pageSizeValue = QueryParamUtils.parseIntOrZero(pageSize == null ? "10" : pageSize);
         String bookmarkValue = bookmark == null ? "" : bookmark;
         String statusValue = status == null ? "" : status;
-        return ApiResponse.success(service.queryTransactionList(pageSizeValue, bookmarkValue, statusValue));
+        return service.queryTransactionList(pageSizeValue, bookmarkValue, statusValue).thenApply(ApiResponse::success);
     }
 
     @GetMapping("/block/list")
-    public ApiResponse<BlockQueryResultDto> queryBlockList(
+    public ResponseEntity<byte[]> queryBlockList(
             @RequestParam(value = "pageSize", required = false) String pageSize,
-            @RequestParam(value = "pageNum", required = false) String pageNum
+            @RequestParam(value = "pageNum", required = false) String pageNum,
+            @RequestParam(value = "channel", required = false) String channel
     ) {
-        int pageSizeValue = QueryParamUtils.parseIntOrZero(pageSize == null ? "10" : pageSize);
-        int pageNumValue = QueryParamUtils.parseIntOrZero(pageNum == null ? "1" : pageNum);
+        return blocks.blockList(pageSize, pageNum, channel);
+    }
 
-        pageSizeValue = QueryParamUtils.normalizePositive(pageSizeValue, 10);
-        pageNumValue = QueryParamUtils.normalizePositive(pageNumValue, 1);
+    @GetMapping(value = "/block/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBlocks(
+            @RequestParam(value = "channel", required = false) String channel,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return blocks.stream(channel, lastEventId);
+    }
 
-        return ApiResponse.success(service.queryBlockList(pageSizeValue, pageNumValue));
+    @GetMapping("/block/tx/{txId}")
+    public ApiResponse<BlockTransactionDto> queryBlockTransaction(
+            @PathVariable String txId,
+            @RequestParam(value = "channel", required = false) String channel
+    ) {
+        return blocks.transaction(txId, channel);
+    }
+
+    @GetMapping("/block/{blockNum}/transactions")
+    public ResponseEntity<ApiResponse<List<BlockTransactionDto>>> queryBlockTransactions(
+            @PathVariable long blockNum,
+            @RequestParam(value = "channel", required = false) String channel
+    ) {
+        return blocks.transactions(blockNum, channel);
     }
-}
 
+    @GetMapping("/block/{blockNum}/raw")
+    public void queryRawBlock(
+            @PathVariable long blockNum,
+            @RequestParam(value = "channel", required = false) String channel,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        blocks.rawBlock(blockNum, channel, request, response);
+    }
+}
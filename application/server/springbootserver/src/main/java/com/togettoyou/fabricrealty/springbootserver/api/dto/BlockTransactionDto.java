@@ -0,0 +1,33 @@
+package com.togettoyou.fabricrealty.springbootserver.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.OffsetDateTime;
+
+/**
+ * 区块内交易索引 DTO
+ * <p>
+ * 来自区块监听落盘的交易级索引（非链码查询），字段命名与 BlockDataDto 一致采用 snake_case。
+ */
+public record BlockTransactionDto(
+        @JsonProperty("tx_id")
+        String txId,              // Fabric 交易 ID
+
+        @JsonProperty("block_num")
+        long blockNum,            // 所在区块号
+
+        @JsonProperty("tx_index")
+        int txIndex,              // 在区块内的位置（从 0 开始）
+
+        @JsonProperty("chaincode")
+        String chaincode,         // 调用的链码（配置交易为空）
+
+        @JsonProperty("function")
+        String function,          // 链码函数名（配置交易为空）
+
+        @JsonProperty("validation_code")
+        String validationCode,    // 校验结果，VALID 表示已生效
+
+        @JsonProperty("tx_time")
+        OffsetDateTime txTime     // 交易提案时间
+) {
+}
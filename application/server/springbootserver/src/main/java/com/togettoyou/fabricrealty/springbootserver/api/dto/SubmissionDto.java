@@ -0,0 +1,38 @@
+package com.togettoyou.fabricrealty.springbootserver.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.OffsetDateTime;
+
+/**
+ * 异步提交的交易状态 DTO
+ * <p>
+ * status：PENDING（已发往排序节点，等待上链）/ COMMITTED（已上链且校验通过）/ FAILED（校验失败或等待超时）。
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SubmissionDto(
+        @JsonProperty("tx_id")
+        String txId,              // Fabric 交易 ID
+
+        @JsonProperty("function")
+        String function,          // 链码函数名
+
+        @JsonProperty("status")
+        String status,
+
+        @JsonProperty("validation_code")
+        String validationCode,    // 校验结果，上链后才有
+
+        @JsonProperty("block_num")
+        Long blockNum,            // 所在区块号，上链后才有
+
+        @JsonProperty("message")
+        String message,           // 失败原因
+
+        @JsonProperty("submit_time")
+        OffsetDateTime submitTime,
+
+        @JsonProperty("finish_time")
+        OffsetDateTime finishTime
+) {
+}
@@ -0,0 +1,106 @@
+package com.togettoyou.fabricrealty.springbootserver.block.archive;
+
+import com.google.protobuf.ByteString;
+import com.togettoyou.fabricrealty.springbootserver.block.listener.BlockIngestionSink;
+import com.togettoyou.fabricrealty.springbootserver.block.model.ArchivedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorageException;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 原始区块归档（app.blockArchiveEnabled）：采集到的区块按账本写入 app.dataDir/blocks/archive/{ledgerKey}。
+ * <p>
+ * Gateway 的事件流交付的是已解析的 common.Block，这里归档的是它重新序列化的 protobuf 字节，可直接用 Block.parseFrom 还原。
+ * 归档文件无法随数据库事务回滚，在批次提交后追加（同一区块重复追加会跳过）；追加失败只记录日志，
+ * 对应区块的原始数据接口返回“区块未归档”。
+ */
+@Component
+@Order(50)
+public class BlockArchive implements BlockIngestionSink {
+    private static final Logger log = LoggerFactory.getLogger(BlockArchive.class);
+
+    private final boolean enabled;
+    private final Path root;
+    private final long segmentBytes;
+    private final Map<String, LedgerArchive> ledgers = new ConcurrentHashMap<>();
+
+    public BlockArchive(AppProperties appProperties) {
+        this.enabled = appProperties.blockArchiveEnabled();
+        this.root = Paths.get(appProperties.dataDir(), "blocks", "archive");
+        this.segmentBytes = appProperties.blockArchiveSegmentMb() * 1024L * 1024L;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    @Override
+    public void afterCommit(String ledgerKey, List<IngestedBlock> blocks) {
+        if (!enabled) {
+            return;
+        }
+        List<Long> blockNums = new ArrayList<>(blocks.size());
+        List<ByteString> bytes = new ArrayList<>(blocks.size());
+        for (IngestedBlock block : blocks) {
+            blockNums.add(block.record().blockNum());
+            bytes.add(block.block().toByteString());
+        }
+        try {
+            ledger(ledgerKey).append(blockNums, bytes);
+        } catch (IOException e) {
+            throw new BlockStorageException("区块归档写入失败: " + e.getMessage(), e);
+        }
+    }
+
+    public Optional<ArchivedBlock> find(String ledgerKey, long blockNum) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try {
+            return ledger(ledgerKey).find(blockNum);
+        } catch (IOException e) {
+            throw new BlockStorageException("读取区块归档失败: " + e.getMessage(), e);
+        }
+    }
+
+    private LedgerArchive ledger(String ledgerKey) throws IOException {
+        try {
+            return ledgers.computeIfAbsent(ledgerKey, key -> {
+                try {
+                    return new LedgerArchive(root.resolve(key), segmentBytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Map.Entry<String, LedgerArchive> entry : ledgers.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (IOException e) {
+                log.warn("Close block archive failed: ledger={}, error={}", entry.getKey(), e.getMessage());
+            }
+        }
+        ledgers.clear();
+    }
+}
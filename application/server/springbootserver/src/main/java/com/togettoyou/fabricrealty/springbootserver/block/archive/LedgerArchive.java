@@ -0,0 +1,169 @@
+package com.togettoyou.fabricrealty.springbootserver.block.archive;
+
+import com.google.protobuf.ByteString;
+import com.togettoyou.fabricrealty.springbootserver.block.model.ArchivedBlock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 单个账本的归档目录：只追加的段文件 segment-NNNNNN.blk + 定长偏移索引 index.dat。
+ * <p>
+ * 索引第 n 个条目（16 字节）对应区块 n：segment(int) | length(int) | offset(long)，length 为 0 表示未归档。
+ * 索引按 1MB 分区内存映射；写入时先把段文件刷盘，再以 release 语义写 length 发布条目，读方以 acquire 语义读取，
+ * 因此读到的条目总是指向已落盘的完整区块。回填乱序写入不影响索引，同一区块重复写入直接跳过。
+ */
+final class LedgerArchive implements Closeable {
+    private static final int ENTRY_BYTES = 16;
+    private static final int REGION_ENTRIES = 1 << 16;
+    private static final long REGION_BYTES = (long) REGION_ENTRIES * ENTRY_BYTES;
+    private static final VarHandle INT_VIEW = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final FileChannel index;
+    private final Map<Long, MappedByteBuffer> regions = new ConcurrentHashMap<>();
+
+    private int segmentNo;
+    private FileChannel segment;
+
+    LedgerArchive(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        this.index = FileChannel.open(directory.resolve("index.dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.segmentNo = lastSegmentNo();
+        this.segment = openSegment(segmentNo);
+    }
+
+    synchronized void append(List<Long> blockNums, List<ByteString> blocks) throws IOException {
+        List<long[]> written = new ArrayList<>(blocks.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            long blockNum = blockNums.get(i);
+            if (find(blockNum).isPresent()) {
+                continue;
+            }
+            ByteString bytes = blocks.get(i);
+            if (segment.size() > 0 && segment.size() + bytes.size() > segmentBytes) {
+                segment.force(false);
+                segment.close();
+                segmentNo++;
+                segment = openSegment(segmentNo);
+            }
+            long offset = segment.size();
+            ByteBuffer buffer = bytes.asReadOnlyByteBuffer();
+            while (buffer.hasRemaining()) {
+                segment.write(buffer, offset + (bytes.size() - buffer.remaining()));
+            }
+            written.add(new long[]{blockNum, segmentNo, offset, bytes.size()});
+        }
+        if (written.isEmpty()) {
+            return;
+        }
+        // 段切换时旧段已刷盘，这里只需刷当前段；多个段的写入先全部落盘再发布索引
+        segment.force(false);
+        Set<MappedByteBuffer> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (long[] entry : written) {
+            MappedByteBuffer region = region(entry[0], true);
+            int position = entryPosition(entry[0]);
+            region.putInt(position, (int) entry[1]);
+            region.putLong(position + 8, entry[2]);
+            INT_VIEW.setRelease(region, position + 4, (int) entry[3]);
+            touched.add(region);
+        }
+        for (MappedByteBuffer region : touched) {
+            region.force();
+        }
+    }
+
+    Optional<ArchivedBlock> find(long blockNum) throws IOException {
+        MappedByteBuffer region = region(blockNum, false);
+        if (region == null) {
+            return Optional.empty();
+        }
+        int position = entryPosition(blockNum);
+        int length = (int) INT_VIEW.getAcquire(region, position + 4);
+        if (length <= 0) {
+            return Optional.empty();
+        }
+        int segmentNo = region.getInt(position);
+        long offset = region.getLong(position + 8);
+        return Optional.of(new ArchivedBlock(blockNum, segmentPath(segmentNo), offset, length));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (MappedByteBuffer region : regions.values()) {
+            region.force();
+        }
+        segment.force(false);
+        segment.close();
+        index.close();
+    }
+
+    /**
+     * @param create false 时索引文件尚未覆盖该区块直接返回 null，避免只读查询把索引文件撑大
+     */
+    private MappedByteBuffer region(long blockNum, boolean create) throws IOException {
+        if (blockNum < 0) {
+            return null;
+        }
+        long regionNo = blockNum / REGION_ENTRIES;
+        MappedByteBuffer region = regions.get(regionNo);
+        if (region != null) {
+            return region;
+        }
+        if (!create && index.size() < (regionNo + 1) * REGION_BYTES) {
+            return null;
+        }
+        synchronized (regions) {
+            region = regions.get(regionNo);
+            if (region == null) {
+                region = index.map(FileChannel.MapMode.READ_WRITE, regionNo * REGION_BYTES, REGION_BYTES);
+                regions.put(regionNo, region);
+            }
+            return region;
+        }
+    }
+
+    private static int entryPosition(long blockNum) {
+        return (int) (blockNum % REGION_ENTRIES) * ENTRY_BYTES;
+    }
+
+    private FileChannel openSegment(int segmentNo) throws IOException {
+        return FileChannel.open(segmentPath(segmentNo), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(int segmentNo) {
+        return directory.resolve(String.format("segment-%06d.blk", segmentNo));
+    }
+
+    private int lastSegmentNo() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith("segment-") && name.endsWith(".blk"))
+                    .mapToInt(name -> Integer.parseInt(name.substring("segment-".length(), name.length() - ".blk".length())))
+                    .max()
+                    .orElse(0);
+        }
+    }
+}
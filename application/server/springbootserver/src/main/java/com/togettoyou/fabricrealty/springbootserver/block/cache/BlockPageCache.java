@@ -0,0 +1,286 @@
+package com.togettoyou.fabricrealty.springbootserver.block.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockDataDto;
+import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockQueryResultDto;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockListPage;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockCommitListener;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorage;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorageException;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.LatestBlockRegistry;
+import com.togettoyou.fabricrealty.springbootserver.common.ApiResponse;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code /block/list} 的响应缓存，缓存内容是可以直接写出的完整 JSON（含 ApiResponse 外层）。
+ * <p>
+ * 每个区块的 JSON 片段序列化一次后放进按账本划分的 LRU，长期复用。提交通知里落在热页窗口内的区块直接序列化成片段放入 LRU，
+ * 窗口外的区块号只删除已缓存的旧片段（重放或回填覆盖时）。
+ * 默认页大小的前 {@code app.blockPageCachePages} 页在每次提交后用片段按新的最新区块号重新拼装，不读存储；
+ * 请求只需比较最新区块号再返回同一个字节数组。其它页按需从片段拼装，缺失的片段（冷启动、已淘汰）一次区间查询补齐。
+ */
+@Component
+public class BlockPageCache implements BlockCommitListener {
+    public static final int DEFAULT_PAGE_SIZE = 10;
+
+    private static final byte[] BLOCKS_FIELD = "\"blocks\":[]".getBytes(StandardCharsets.UTF_8);
+
+    private final BlockStorage blockStorage;
+    private final ObjectMapper objectMapper;
+    private final int hotPages;
+    private final int fragmentCapacity;
+    private final Map<String, LedgerPages> ledgers = new ConcurrentHashMap<>();
+
+    public BlockPageCache(BlockStorage blockStorage, ObjectMapper objectMapper, AppProperties appProperties,
+                          LatestBlockRegistry latestRegistry) {
+        this.blockStorage = blockStorage;
+        this.objectMapper = objectMapper;
+        this.hotPages = appProperties.blockPageCachePages();
+        // 片段容量至少覆盖热页窗口，否则每次重建都会把自己刚放进去的片段挤出去
+        this.fragmentCapacity = Math.max(appProperties.blockFragmentCacheSize(), hotPages * DEFAULT_PAGE_SIZE * 2);
+        latestRegistry.subscribe(this);
+    }
+
+    /**
+     * 返回的 JSON 与 {@code ApiResponse.success(blockStorage.queryBlocks(...))} 的序列化结果一致。
+     */
+    public BlockListPage page(String ledgerKey, int pageSize, int pageNum) {
+        int normalizedPageSize = pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+        int normalizedPageNum = pageNum > 0 ? pageNum : 1;
+        long latestBlockNum = blockStorage.getLatestBlockNum(ledgerKey)
+                .orElseThrow(() -> new BlockStorageException("组织数据不存在"));
+
+        LedgerPages pages = ledger(ledgerKey);
+        if (normalizedPageSize == DEFAULT_PAGE_SIZE && normalizedPageNum <= hotPages) {
+            HotPages hot = pages.hot;
+            if (hot == null || hot.latestBlockNum() < latestBlockNum) {
+                hot = rebuild(ledgerKey, pages, latestBlockNum, false);
+            }
+            return hot.pages()[normalizedPageNum - 1];
+        }
+        return render(ledgerKey, pages, latestBlockNum, normalizedPageSize, normalizedPageNum);
+    }
+
+    @Override
+    public void onBlocksCommitted(String ledgerKey, long latestBlockNum, List<BlockRecord> blocks) {
+        LedgerPages pages = ledger(ledgerKey);
+        long windowStart = latestBlockNum + 1 - (long) hotPages * DEFAULT_PAGE_SIZE;
+        List<Fragment> serialized = new ArrayList<>(blocks.size());
+        boolean touchesWindow = false;
+        for (BlockRecord block : blocks) {
+            boolean inWindow = block.blockNum() >= windowStart;
+            touchesWindow |= inWindow;
+            serialized.add(inWindow ? fragment(block) : null);
+        }
+        synchronized (pages.fragments) {
+            // 版本号让提交前开始的冷查询不把读到的旧行回填
+            pages.version++;
+            for (int i = 0; i < blocks.size(); i++) {
+                long blockNum = blocks.get(i).blockNum();
+                if (serialized.get(i) != null) {
+                    pages.fragments.put(blockNum, serialized.get(i));
+                } else {
+                    pages.fragments.remove(blockNum);
+                }
+            }
+        }
+        HotPages hot = pages.hot;
+        if (hot != null && hot.latestBlockNum() == latestBlockNum && !touchesWindow) {
+            // 最新区块号没变（回填低段），且没有区块补进热页窗口
+            return;
+        }
+        rebuild(ledgerKey, pages, latestBlockNum, true);
+    }
+
+    private LedgerPages ledger(String ledgerKey) {
+        return ledgers.computeIfAbsent(ledgerKey, key -> new LedgerPages(fragmentCapacity));
+    }
+
+    /**
+     * @param force 提交通知触发时即使最新区块号相同也要重建（窗口内补进了缺失区块）
+     */
+    private HotPages rebuild(String ledgerKey, LedgerPages pages, long latestBlockNum, boolean force) {
+        synchronized (pages) {
+            HotPages hot = pages.hot;
+            if (hot != null && (hot.latestBlockNum() > latestBlockNum || (!force && hot.latestBlockNum() == latestBlockNum))) {
+                return hot;
+            }
+            BlockListPage[] rendered = new BlockListPage[hotPages];
+            for (int i = 0; i < rendered.length; i++) {
+                rendered[i] = render(ledgerKey, pages, latestBlockNum, DEFAULT_PAGE_SIZE, i + 1);
+            }
+            hot = new HotPages(latestBlockNum, rendered);
+            pages.hot = hot;
+            return hot;
+        }
+    }
+
+    /**
+     * 分页窗口与 JdbcBlockStorage.queryBlocks 相同：按区块号倒序，第 1 页是最新的 pageSize 个区块。
+     */
+    private BlockListPage render(String ledgerKey, LedgerPages pages, long latestBlockNum, int pageSize, int pageNum) {
+        long totalLong = latestBlockNum + 1;
+        int total = totalLong > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) totalLong;
+
+        long startIdx = totalLong - (long) pageNum * pageSize;
+        long endIdx = startIdx + pageSize;
+        if (startIdx < 0) {
+            startIdx = 0;
+        }
+        if (endIdx > totalLong) {
+            endIdx = totalLong;
+        }
+        boolean hasMore = startIdx > 0;
+
+        byte[] envelope = serialize(ApiResponse.success(
+                new BlockQueryResultDto(List.of(), total, pageSize, pageNum, hasMore)));
+        List<Fragment> fragments = fragments(ledgerKey, pages, startIdx, endIdx);
+        long lastModified = 0;
+        for (Fragment fragment : fragments) {
+            lastModified = Math.max(lastModified, fragment.saveTime());
+        }
+        return new BlockListPage(latestBlockNum, pageSize, pageNum, fragments.size(), lastModified, splice(envelope, fragments));
+    }
+
+    /**
+     * 按区块号倒序返回 [fromBlock, toBlock) 内已落库区块的 JSON 片段。
+     */
+    private List<Fragment> fragments(String ledgerKey, LedgerPages pages, long fromBlock, long toBlock) {
+        if (toBlock <= fromBlock) {
+            return List.of();
+        }
+        Fragment[] found = new Fragment[(int) (toBlock - fromBlock)];
+        long missingFrom = -1;
+        long missingTo = -1;
+        long version;
+        synchronized (pages.fragments) {
+            version = pages.version;
+            for (int i = 0; i < found.length; i++) {
+                found[i] = pages.fragments.get(fromBlock + i);
+                if (found[i] == null) {
+                    if (missingFrom < 0) {
+                        missingFrom = fromBlock + i;
+                    }
+                    missingTo = fromBlock + i;
+                }
+            }
+        }
+        if (missingFrom >= 0) {
+            List<BlockRecord> loaded = blockStorage.findBlocks(ledgerKey, missingFrom, missingTo);
+            List<Fragment> serialized = new ArrayList<>(loaded.size());
+            for (BlockRecord block : loaded) {
+                serialized.add(fragment(block));
+            }
+            synchronized (pages.fragments) {
+                // 查询期间有区块提交时，读到的可能是被覆盖前的行，只用于本次响应，不回填
+                boolean cacheable = pages.version == version;
+                for (int i = 0; i < loaded.size(); i++) {
+                    long blockNum = loaded.get(i).blockNum();
+                    found[(int) (blockNum - fromBlock)] = serialized.get(i);
+                    if (cacheable) {
+                        pages.fragments.put(blockNum, serialized.get(i));
+                    }
+                }
+            }
+        }
+        List<Fragment> result = new ArrayList<>(found.length);
+        for (int i = found.length - 1; i >= 0; i--) {
+            if (found[i] != null) {
+                result.add(found[i]);
+            }
+        }
+        return result;
+    }
+
+    private Fragment fragment(BlockRecord block) {
+        return new Fragment(serialize(new BlockDataDto(
+                block.blockNum(),
+                block.blockHash(),
+                block.dataHash(),
+                block.prevHash(),
+                block.txCount(),
+                block.saveTime()
+        )), block.saveTime().toInstant().toEpochMilli());
+    }
+
+    /**
+     * 把片段依次填进外层 JSON 的 {@code "blocks":[]} 中。
+     */
+    private static byte[] splice(byte[] envelope, List<Fragment> fragments) {
+        int at = indexOf(envelope, BLOCKS_FIELD);
+        if (at < 0) {
+            throw new BlockStorageException("区块列表序列化格式异常");
+        }
+        int insertAt = at + BLOCKS_FIELD.length - 1;
+        int length = envelope.length + Math.max(0, fragments.size() - 1);
+        for (Fragment fragment : fragments) {
+            length += fragment.json().length;
+        }
+        byte[] out = new byte[length];
+        System.arraycopy(envelope, 0, out, 0, insertAt);
+        int position = insertAt;
+        for (int i = 0; i < fragments.size(); i++) {
+            if (i > 0) {
+                out[position++] = ',';
+            }
+            byte[] fragment = fragments.get(i).json();
+            System.arraycopy(fragment, 0, out, position, fragment.length);
+            position += fragment.length;
+        }
+        System.arraycopy(envelope, insertAt, out, position, envelope.length - insertAt);
+        return out;
+    }
+
+    private static int indexOf(byte[] bytes, byte[] target) {
+        outer:
+        for (int i = 0; i <= bytes.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (bytes[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new BlockStorageException("序列化区块列表失败: " + e.getMessage(), e);
+        }
+    }
+
+    private record HotPages(long latestBlockNum, BlockListPage[] pages) {
+    }
+
+    private record Fragment(byte[] json, long saveTime) {
+    }
+
+    private static final class LedgerPages {
+        private final Map<Long, Fragment> fragments;
+        private volatile HotPages hot;
+        // 在 fragments 上加锁读写，每次提交通知加 1
+        private long version;
+
+        LedgerPages(int capacity) {
+            this.fragments = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Fragment> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.togettoyou.fabricrealty.springbootserver.block.listener;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockBackfillStore;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 在落库事务内推进回填分段的 next_block，进度与区块同时提交，崩溃后不会重复拉取已落库的批次。
+ * <p>
+ * 回填每批区块连续且只属于一个分段；实时监听的批次没有对应分段，更新不到任何行。
+ */
+@Component
+@Order(500)
+public class BackfillProgressRecorder implements BlockIngestionSink {
+    private final BlockBackfillStore backfillStore;
+
+    public BackfillProgressRecorder(BlockBackfillStore backfillStore) {
+        this.backfillStore = backfillStore;
+    }
+
+    @Override
+    public void accept(String ledgerKey, List<IngestedBlock> blocks) {
+        long firstBlock = blocks.get(0).record().blockNum();
+        long nextBlock = blocks.get(blocks.size() - 1).record().blockNum() + 1;
+        backfillStore.advanceProgress(ledgerKey, firstBlock, nextBlock);
+    }
+}
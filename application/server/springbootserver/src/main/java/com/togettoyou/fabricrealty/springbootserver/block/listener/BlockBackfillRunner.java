@@ -0,0 +1,173 @@
+package com.togettoyou.fabricrealty.springbootserver.block.listener;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BackfillSegment;
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockBackfillStore;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorage;
+import com.togettoyou.fabricrealty.springbootserver.common.TaskExecutors;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import com.togettoyou.fabricrealty.springbootserver.fabric.FabricErrorTranslator;
+import jakarta.annotation.PreDestroy;
+import org.hyperledger.fabric.client.Network;
+import org.hyperledger.fabric.protos.common.Block;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 空库历史回填：查询通道高度，把 [0, height) 切成若干段，用多条 block events 流并发拉取、乱序落库。
+ * <p>
+ * 每段进度（next_block）由 {@link BackfillProgressRecorder} 在每批区块的落库事务内推进，重启后只续拉未完成的部分；
+ * 各段并发拉取，落库由 {@link BlockPersister} 按账本串行；全部完成后清除分段记录，
+ * 监听从 latest_blocks + 1（即回填时的 height）继续实时跟随。
+ */
+@Component
+public class BlockBackfillRunner {
+    private static final Logger log = LoggerFactory.getLogger(BlockBackfillRunner.class);
+
+    private final BlockStorage blockStorage;
+    private final BlockPersister persister;
+    private final BlockBackfillStore backfillStore;
+    private final int segmentSize;
+    private final int parallelism;
+    private final int batchSize;
+    private final ExecutorService executor;
+
+    public BlockBackfillRunner(
+            BlockStorage blockStorage,
+            BlockPersister persister,
+            BlockBackfillStore backfillStore,
+            AppProperties appProperties
+    ) {
+        this.blockStorage = blockStorage;
+        this.persister = persister;
+        this.backfillStore = backfillStore;
+        this.segmentSize = appProperties.backfillSegmentSize();
+        this.parallelism = appProperties.backfillParallelism();
+        this.batchSize = appProperties.blockBatchSize();
+        this.executor = TaskExecutors.newExecutor("block-backfill-", appProperties.virtualThreads());
+    }
+
+    /**
+     * @return true 表示无需回填或回填已全部完成，可以开始实时监听；false 表示有分段未完成，稍后重试
+     */
+    public boolean run(String ledgerKey, Network network, AtomicBoolean running) {
+        List<BackfillSegment> segments = backfillStore.loadSegments(ledgerKey);
+        if (segments.isEmpty()) {
+            if (blockStorage.getLatestBlockNum(ledgerKey).isPresent()) {
+                return true;
+            }
+            long height = BlockEventsAccessor.queryChainHeight(network);
+            if (height <= segmentSize) {
+                return true;
+            }
+            segments = plan(height);
+            backfillStore.createSegments(ledgerKey, segments);
+            log.info("Block backfill planned: ledger={}, height={}, segments={}, parallelism={}",
+                    ledgerKey, height, segments.size(), parallelism);
+        }
+
+        Queue<BackfillSegment> remaining = new ConcurrentLinkedQueue<>();
+        for (BackfillSegment segment : segments) {
+            if (!segment.done()) {
+                remaining.add(segment);
+            }
+        }
+
+        List<Future<Boolean>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(parallelism, remaining.size()); i++) {
+            workers.add(executor.submit(() -> drain(ledgerKey, network, remaining, running)));
+        }
+
+        boolean completed = true;
+        for (Future<Boolean> worker : workers) {
+            try {
+                completed &= worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                workers.forEach(w -> w.cancel(true));
+                return false;
+            } catch (Exception e) {
+                completed = false;
+            }
+        }
+
+        if (completed && remaining.isEmpty()) {
+            backfillStore.clearSegments(ledgerKey);
+            log.info("Block backfill completed: ledger={}", ledgerKey);
+            return true;
+        }
+        return false;
+    }
+
+    private List<BackfillSegment> plan(long height) {
+        List<BackfillSegment> segments = new ArrayList<>();
+        for (long start = 0; start < height; start += segmentSize) {
+            long end = Math.min(height, start + segmentSize);
+            segments.add(new BackfillSegment(start, end, start));
+        }
+        return segments;
+    }
+
+    private boolean drain(String ledgerKey, Network network, Queue<BackfillSegment> remaining, AtomicBoolean running) {
+        boolean completed = true;
+        BackfillSegment segment;
+        while (running.get() && (segment = remaining.poll()) != null) {
+            try {
+                fetchSegment(ledgerKey, network, segment, running);
+            } catch (Exception e) {
+                completed = false;
+                log.warn("Block backfill segment failed: ledger={}, segment=[{}, {}), error={}",
+                        ledgerKey, segment.startBlock(), segment.endBlock(), FabricErrorTranslator.toUserMessage(e));
+            }
+        }
+        return completed && running.get();
+    }
+
+    private void fetchSegment(String ledgerKey, Network network, BackfillSegment segment, AtomicBoolean running) {
+        long next = segment.nextBlock();
+        List<IngestedBlock> batch = new ArrayList<>(batchSize);
+        // Gateway 的 BlockEventsRequest 只支持起始区块，段尾通过读到 endBlock 时主动关闭流实现
+        try (BlockEventStream stream = BlockEventsAccessor.open(network, next)) {
+            Iterator<Block> iterator = stream.iterator();
+            while (next < segment.endBlock() && running.get() && iterator.hasNext()) {
+                Block block = iterator.next();
+                if (block.getHeader().getNumber() >= segment.endBlock()) {
+                    break;
+                }
+                IngestedBlock ingested = BlockRecordParser.parse(block);
+                batch.add(ingested);
+                next = ingested.record().blockNum() + 1;
+                if (batch.size() >= batchSize || next >= segment.endBlock()) {
+                    flush(ledgerKey, batch);
+                }
+            }
+        }
+        flush(ledgerKey, batch);
+        if (next < segment.endBlock() && running.get()) {
+            throw new IllegalStateException("区块流提前结束: next=" + next);
+        }
+    }
+
+    private void flush(String ledgerKey, List<IngestedBlock> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        persister.persist(ledgerKey, batch);
+        batch.clear();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,165 @@
+package com.togettoyou.fabricrealty.springbootserver.block.listener;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 区块监听与落库之间的流水线：监听线程只负责入队，写线程按 batchSize 条或 flushInterval 时间攒批后一次提交。
+ * <p>
+ * 一旦某批写库失败，后续已入队的区块全部丢弃（不能越过失败批次写入，否则 latest_blocks 会跳号），
+ * 监听线程在下一次 {@link #put} 时收到异常，等待队列清空后从库中的断点重新订阅。
+ */
+public final class BlockBatchWriter implements Runnable {
+    private static final Logger log = LoggerFactory.getLogger(BlockBatchWriter.class);
+
+    private final String ledgerKey;
+    private final BlockPersister persister;
+    private final int batchSize;
+    private final long flushNanos;
+    private final BlockingQueue<IngestedBlock> queue;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition drained = lock.newCondition();
+    private long pending;
+
+    private volatile BlockStorageException failure;
+    private volatile boolean closed;
+
+    public BlockBatchWriter(String ledgerKey, BlockPersister persister, int batchSize, Duration flushInterval, int queueCapacity) {
+        this.ledgerKey = ledgerKey;
+        this.persister = persister;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushNanos = Math.max(1, flushInterval.toNanos());
+        this.queue = new ArrayBlockingQueue<>(Math.max(this.batchSize, queueCapacity));
+    }
+
+    public void put(IngestedBlock block) throws InterruptedException {
+        BlockStorageException error = failure;
+        if (error != null) {
+            throw error;
+        }
+        lock.lock();
+        try {
+            pending++;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            queue.put(block);
+        } catch (InterruptedException e) {
+            completed(1);
+            throw e;
+        }
+    }
+
+    /**
+     * 等待已入队的区块全部提交（或因失败被丢弃），并清除失败状态，用于重新计算断点之前。
+     */
+    public void awaitDrained() throws InterruptedException {
+        lock.lock();
+        try {
+            while (pending > 0 && !closed) {
+                drained.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+        failure = null;
+    }
+
+    /**
+     * 最近一批是否写库成功；失败后到下一次 {@link #awaitDrained} 之前投影和区块表都不会再前进。
+     */
+    public boolean healthy() {
+        return failure == null;
+    }
+
+    public void close() {
+        closed = true;
+        lock.lock();
+        try {
+            drained.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void run() {
+        List<IngestedBlock> batch = new ArrayList<>(batchSize);
+        try {
+            while (!closed) {
+                IngestedBlock first = queue.poll(flushNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    IngestedBlock next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            }
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close();
+        }
+    }
+
+    private void flush(List<IngestedBlock> batch) {
+        int done = batch.size();
+        try {
+            if (failure == null) {
+                persister.persist(ledgerKey, batch);
+                log.debug("Saved blocks: ledger={}, from={}, to={}, count={}",
+                        ledgerKey, batch.get(0).record().blockNum(), batch.get(batch.size() - 1).record().blockNum(), batch.size());
+            }
+        } catch (Exception e) {
+            failure = new BlockStorageException("区块批量落库失败: " + e.getMessage(), e);
+            log.warn("Block batch save failed: ledger={}, from={}, count={}, error={}",
+                    ledgerKey, batch.get(0).record().blockNum(), batch.size(), e.getMessage());
+        } finally {
+            if (failure != null) {
+                List<IngestedBlock> discarded = new ArrayList<>();
+                queue.drainTo(discarded);
+                done += discarded.size();
+            }
+            batch.clear();
+            completed(done);
+        }
+    }
+
+    private void completed(int count) {
+        lock.lock();
+        try {
+            pending -= count;
+            if (pending <= 0) {
+                pending = 0;
+                drained.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
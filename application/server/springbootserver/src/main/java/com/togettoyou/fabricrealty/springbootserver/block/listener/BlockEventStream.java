@@ -1,17 +1,19 @@
 package com.togettoyou.fabricrealty.springbootserver.block.listener;
 
+import org.hyperledger.fabric.protos.common.Block;
+
 import java.util.Iterator;
 
 public final class BlockEventStream implements AutoCloseable {
-    private final Iterator<?> iterator;
+    private final Iterator<Block> iterator;
     private final AutoCloseable closeable;
 
-    public BlockEventStream(Iterator<?> iterator, AutoCloseable closeable) {
+    public BlockEventStream(Iterator<Block> iterator, AutoCloseable closeable) {
         this.iterator = iterator;
         this.closeable = closeable;
     }
 
-    public Iterator<?> iterator() {
+    public Iterator<Block> iterator() {
         return iterator;
     }
 
@@ -26,4 +28,3 @@ public final class BlockEventStream implements AutoCloseable {
         }
     }
 }
-
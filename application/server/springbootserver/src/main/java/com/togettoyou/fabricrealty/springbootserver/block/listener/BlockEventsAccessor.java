@@ -1,127 +1,34 @@
 package com.togettoyou.fabricrealty.springbootserver.block.listener;
 
-import org.hyperledger.fabric.client.BlockEventsRequest;
+import org.hyperledger.fabric.client.CloseableIterator;
 import org.hyperledger.fabric.client.Network;
-
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Iterator;
+import org.hyperledger.fabric.protos.common.Block;
+import org.hyperledger.fabric.protos.common.BlockchainInfo;
 
 public final class BlockEventsAccessor {
     private BlockEventsAccessor() {
     }
 
     public static BlockEventStream open(Network network, long startBlock) {
-        Object events = createEventsSource(network, startBlock);
-        Iterator<?> iterator = toIterator(events);
-        AutoCloseable closeable = toCloseable(events);
-        return new BlockEventStream(iterator, closeable);
-    }
-
-    private static Object createEventsSource(Network network, long startBlock) {
-        try {
-            BlockEventsRequest.Builder builder = network.newBlockEventsRequest();
-            builder.startBlock(startBlock);
-            BlockEventsRequest request = builder.build();
-            Object events = request.getEvents();
-            if (events != null) {
-                return events;
-            }
-            throw new IllegalStateException("block events 结果为空");
-        } catch (Exception e) {
-            if (e instanceof RuntimeException re) {
-                throw re;
-            }
-            throw new RuntimeException(e);
-        }
-    }
-
-    private static Iterator<?> toIterator(Object events) {
+        CloseableIterator<Block> events = network.newBlockEventsRequest()
+                .startBlock(startBlock)
+                .build()
+                .getEvents();
         if (events == null) {
             throw new IllegalStateException("block events 结果为空");
         }
-        if (events instanceof Iterator<?> iterator) {
-            return iterator;
-        }
-        if (events instanceof Iterable<?> iterable) {
-            return iterable.iterator();
-        }
-        Method iteratorMethod = findMethod(events.getClass(), "iterator");
-        if (iteratorMethod != null) {
-            try {
-                Object iterator = iteratorMethod.invoke(events);
-                if (iterator instanceof Iterator<?> it) {
-                    return it;
-                }
-            } catch (Exception ignored) {
-            }
-        }
-        Method hasNext = findMethod(events.getClass(), "hasNext");
-        Method next = findMethod(events.getClass(), "next");
-        if (hasNext != null && next != null) {
-            return new ReflectionIterator(events, hasNext, next);
-        }
-        throw new IllegalStateException("block events 返回对象不可迭代: " + events.getClass().getName());
+        return new BlockEventStream(events, events);
     }
 
-    private static AutoCloseable toCloseable(Object events) {
-        if (events instanceof AutoCloseable closeable) {
-            return closeable;
-        }
-        Method close = findMethod(events.getClass(), "close");
-        if (close != null) {
-            return () -> {
-                try {
-                    close.invoke(events);
-                } catch (Exception ignored) {
-                }
-            };
-        }
-        return null;
-    }
-
-    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+    /**
+     * 通过系统链码 qscc.GetChainInfo 查询通道当前高度（最新区块号 + 1）。
+     */
+    public static long queryChainHeight(Network network) {
         try {
-            return type.getMethod(name, parameterTypes);
-        } catch (NoSuchMethodException ignored) {
-            return null;
-        }
-    }
-
-    private static final class ReflectionIterator implements Iterator<Object> {
-        private final Object target;
-        private final Method hasNext;
-        private final Method next;
-
-        private ReflectionIterator(Object target, Method hasNext, Method next) {
-            this.target = target;
-            this.hasNext = hasNext;
-            this.next = next;
-        }
-
-        @Override
-        public boolean hasNext() {
-            try {
-                Object result = hasNext.invoke(target);
-                return result instanceof Boolean b && b;
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        @Override
-        public Object next() {
-            try {
-                return next.invoke(target);
-            } catch (InvocationTargetException e) {
-                Throwable target = e.getTargetException();
-                if (target instanceof RuntimeException re) {
-                    throw re;
-                }
-                throw new RuntimeException(target);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+            byte[] result = network.getContract("qscc").evaluateTransaction("GetChainInfo", network.getName());
+            return BlockchainInfo.parseFrom(result).getHeight();
+        } catch (Exception e) {
+            throw new IllegalStateException("查询通道高度失败: " + e.getMessage(), e);
         }
     }
 }
@@ -1,23 +1,75 @@
 package com.togettoyou.fabricrealty.springbootserver.block.listener;
 
-import java.math.BigInteger;
+import com.google.protobuf.ByteString;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import org.hyperledger.fabric.protos.common.BlockHeader;
+
+import java.security.DigestException;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
+import java.util.List;
 
+/**
+ * 区块头哈希：SHA-256(DER SEQUENCE{ INTEGER(number), OCTET STRING(previousHash), OCTET STRING(dataHash) })。
+ * <p>
+ * DER 直接编码进线程私有的缓冲区，MessageDigest 按线程缓存复用；除返回的十六进制字符串外不产生中间数组。
+ * {@link #matchesBlockHeaderHash} 直接拿摘要与十六进制比较，校验路径连结果字符串也不分配。
+ */
 public final class BlockHashUtils {
     private static final HexFormat HEX = HexFormat.of().withLowerCase();
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int DIGEST_LENGTH = 32;
+
+    private static final ThreadLocal<Hasher> HASHER = ThreadLocal.withInitial(Hasher::new);
 
     private BlockHashUtils() {
     }
 
     public static String sha256BlockHeaderHash(long blockNum, byte[] previousHash, byte[] dataHash) {
-        byte[] header = encodeHeader(blockNum, previousHash == null ? new byte[0] : previousHash, dataHash == null ? new byte[0] : dataHash);
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            return HEX.formatHex(digest.digest(header));
-        } catch (Exception e) {
-            throw new IllegalStateException("计算区块哈希失败: " + e.getMessage(), e);
+        return HASHER.get().hash(blockNum, previousHash, dataHash);
+    }
+
+    /**
+     * 直接读取 protobuf 的 ByteString，不再把 previousHash/dataHash 拷贝成新数组。
+     */
+    public static String sha256BlockHeaderHash(long blockNum, ByteString previousHash, ByteString dataHash) {
+        return HASHER.get().hash(blockNum, previousHash, dataHash);
+    }
+
+    /**
+     * 批量计算区块头哈希，整批共用一次线程私有状态查找，供回填、校验等批处理使用。
+     */
+    public static String[] sha256BlockHeaderHashes(List<BlockHeader> headers) {
+        Hasher hasher = HASHER.get();
+        String[] hashes = new String[headers.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            BlockHeader header = headers.get(i);
+            hashes[i] = hasher.hash(header.getNumber(), header.getPreviousHash(), header.getDataHash());
         }
+        return hashes;
+    }
+
+    /**
+     * 按存储的十六进制 prevHash/dataHash 重算哈希并与 expectedHash 比较，不分配任何对象。
+     *
+     * @throws IllegalArgumentException prevHash/dataHash 不是合法的十六进制
+     */
+    public static boolean matchesBlockHeaderHash(long blockNum, String previousHashHex, String dataHashHex, String expectedHashHex) {
+        return HASHER.get().matches(blockNum, previousHashHex, dataHashHex, expectedHashHex);
+    }
+
+    /**
+     * 批量版本的 {@link #matchesBlockHeaderHash}：result[i] 表示 records[i] 的 block_hash 与重算结果一致。
+     */
+    public static boolean[] matchBlockHeaderHashes(List<BlockRecord> records) {
+        Hasher hasher = HASHER.get();
+        boolean[] result = new boolean[records.size()];
+        for (int i = 0; i < result.length; i++) {
+            BlockRecord record = records.get(i);
+            result[i] = hasher.matches(record.blockNum(), record.prevHash(), record.dataHash(), record.blockHash());
+        }
+        return result;
     }
 
     public static String toHex(byte[] bytes) {
@@ -27,71 +79,209 @@ public final class BlockHashUtils {
         return HEX.formatHex(bytes);
     }
 
-    private static byte[] encodeHeader(long blockNum, byte[] previousHash, byte[] dataHash) {
-        byte[] integer = encodeInteger(BigInteger.valueOf(blockNum));
-        byte[] prev = encodeOctetString(previousHash);
-        byte[] data = encodeOctetString(dataHash);
-
-        int length = integer.length + prev.length + data.length;
-        byte[] seqLen = encodeLength(length);
-
-        byte[] result = new byte[1 + seqLen.length + length];
-        int offset = 0;
-        result[offset++] = 0x30;
-        System.arraycopy(seqLen, 0, result, offset, seqLen.length);
-        offset += seqLen.length;
-        System.arraycopy(integer, 0, result, offset, integer.length);
-        offset += integer.length;
-        System.arraycopy(prev, 0, result, offset, prev.length);
-        offset += prev.length;
-        System.arraycopy(data, 0, result, offset, data.length);
-        return result;
+    public static String toHex(ByteString bytes) {
+        if (bytes == null || bytes.isEmpty()) {
+            return "";
+        }
+        int size = bytes.size();
+        char[] out = new char[size * 2];
+        for (int i = 0; i < size; i++) {
+            int b = bytes.byteAt(i) & 0xFF;
+            out[i * 2] = HEX_DIGITS[b >>> 4];
+            out[i * 2 + 1] = HEX_DIGITS[b & 0x0F];
+        }
+        return new String(out);
     }
 
-    private static byte[] encodeInteger(BigInteger value) {
-        byte[] bytes = value.toByteArray();
-        byte[] len = encodeLength(bytes.length);
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
 
-        byte[] result = new byte[1 + len.length + bytes.length];
-        int offset = 0;
-        result[offset++] = 0x02;
-        System.arraycopy(len, 0, result, offset, len.length);
-        offset += len.length;
-        System.arraycopy(bytes, 0, result, offset, bytes.length);
-        return result;
+    private static int length(ByteString bytes) {
+        return bytes == null ? 0 : bytes.size();
     }
 
-    private static byte[] encodeOctetString(byte[] bytes) {
-        byte[] len = encodeLength(bytes.length);
-        byte[] result = new byte[1 + len.length + bytes.length];
-        int offset = 0;
-        result[offset++] = 0x04;
-        System.arraycopy(len, 0, result, offset, len.length);
-        offset += len.length;
-        System.arraycopy(bytes, 0, result, offset, bytes.length);
-        return result;
+    private static int hexLength(String hex) {
+        int length = hex == null ? 0 : hex.length();
+        if ((length & 1) != 0) {
+            throw new IllegalArgumentException("十六进制长度必须为偶数: " + length);
+        }
+        return length / 2;
     }
 
-    private static byte[] encodeLength(int length) {
-        if (length < 0) {
-            throw new IllegalArgumentException("length < 0");
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
         }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        throw new IllegalArgumentException("非法的十六进制字符: " + c);
+    }
+
+    /**
+     * DER 长度字段占用的字节数。
+     */
+    private static int lengthSize(int length) {
         if (length < 128) {
-            return new byte[]{(byte) length};
+            return 1;
         }
-        int temp = length;
         int numBytes = 0;
-        while (temp > 0) {
+        for (int temp = length; temp > 0; temp >>>= 8) {
             numBytes++;
-            temp >>= 8;
         }
-        byte[] result = new byte[1 + numBytes];
-        result[0] = (byte) (0x80 | numBytes);
-        for (int i = numBytes; i > 0; i--) {
-            result[i] = (byte) (length & 0xFF);
-            length >>= 8;
+        return 1 + numBytes;
+    }
+
+    /**
+     * 与 BigInteger.valueOf(value).toByteArray() 相同的最短补码长度。
+     */
+    private static int integerSize(long value) {
+        int size = 8;
+        while (size > 1) {
+            long top = value >> ((size - 1) * 8 - 1);
+            if (top != 0 && top != -1) {
+                break;
+            }
+            size--;
+        }
+        return size;
+    }
+
+    /**
+     * 每个线程一份：MessageDigest、DER 缓冲区、摘要结果与十六进制字符缓冲区。
+     */
+    private static final class Hasher {
+        private final MessageDigest digest;
+        private final byte[] result = new byte[DIGEST_LENGTH];
+        private final char[] hex = new char[DIGEST_LENGTH * 2];
+        private byte[] buffer = new byte[256];
+        private int position;
+
+        Hasher() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("计算区块哈希失败: " + e.getMessage(), e);
+            }
+        }
+
+        String hash(long blockNum, byte[] previousHash, byte[] dataHash) {
+            begin(blockNum, length(previousHash), length(dataHash));
+            octets(previousHash);
+            octets(dataHash);
+            return digestHex();
+        }
+
+        String hash(long blockNum, ByteString previousHash, ByteString dataHash) {
+            begin(blockNum, length(previousHash), length(dataHash));
+            octets(previousHash);
+            octets(dataHash);
+            return digestHex();
+        }
+
+        boolean matches(long blockNum, String previousHashHex, String dataHashHex, String expectedHashHex) {
+            begin(blockNum, hexLength(previousHashHex), hexLength(dataHashHex));
+            hexOctets(previousHashHex);
+            hexOctets(dataHashHex);
+            digestInto();
+            if (expectedHashHex == null || expectedHashHex.length() != DIGEST_LENGTH * 2) {
+                return false;
+            }
+            for (int i = 0; i < DIGEST_LENGTH; i++) {
+                char high = expectedHashHex.charAt(i * 2);
+                char low = expectedHashHex.charAt(i * 2 + 1);
+                int b = result[i] & 0xFF;
+                if (Character.toLowerCase(high) != HEX_DIGITS[b >>> 4] || Character.toLowerCase(low) != HEX_DIGITS[b & 0x0F]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 写入 SEQUENCE 头与 INTEGER，之后依次写入两个 OCTET STRING。
+         */
+        void begin(long blockNum, int previousHashLength, int dataHashLength) {
+            int integerSize = integerSize(blockNum);
+            int content = 1 + lengthSize(integerSize) + integerSize
+                    + 1 + lengthSize(previousHashLength) + previousHashLength
+                    + 1 + lengthSize(dataHashLength) + dataHashLength;
+            int total = 1 + lengthSize(content) + content;
+            if (buffer.length < total) {
+                buffer = new byte[Math.max(total, buffer.length * 2)];
+            }
+            position = 0;
+            buffer[position++] = 0x30;
+            writeLength(content);
+            buffer[position++] = 0x02;
+            writeLength(integerSize);
+            for (int shift = (integerSize - 1) * 8; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (blockNum >>> shift);
+            }
+        }
+
+        void octets(byte[] bytes) {
+            int length = length(bytes);
+            buffer[position++] = 0x04;
+            writeLength(length);
+            if (length > 0) {
+                System.arraycopy(bytes, 0, buffer, position, length);
+                position += length;
+            }
+        }
+
+        void octets(ByteString bytes) {
+            int length = length(bytes);
+            buffer[position++] = 0x04;
+            writeLength(length);
+            if (length > 0) {
+                bytes.copyTo(buffer, position);
+                position += length;
+            }
+        }
+
+        void hexOctets(String hexString) {
+            int length = hexLength(hexString);
+            buffer[position++] = 0x04;
+            writeLength(length);
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) ((hexDigit(hexString.charAt(i * 2)) << 4) | hexDigit(hexString.charAt(i * 2 + 1)));
+            }
+        }
+
+        String digestHex() {
+            digestInto();
+            for (int i = 0; i < DIGEST_LENGTH; i++) {
+                int b = result[i] & 0xFF;
+                hex[i * 2] = HEX_DIGITS[b >>> 4];
+                hex[i * 2 + 1] = HEX_DIGITS[b & 0x0F];
+            }
+            return new String(hex);
+        }
+
+        private void digestInto() {
+            digest.update(buffer, 0, position);
+            try {
+                digest.digest(result, 0, DIGEST_LENGTH);
+            } catch (DigestException e) {
+                throw new IllegalStateException("计算区块哈希失败: " + e.getMessage(), e);
+            }
+        }
+
+        private void writeLength(int length) {
+            if (length < 128) {
+                buffer[position++] = (byte) length;
+                return;
+            }
+            int numBytes = lengthSize(length) - 1;
+            buffer[position++] = (byte) (0x80 | numBytes);
+            for (int shift = (numBytes - 1) * 8; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (length >>> shift);
+            }
         }
-        return result;
     }
 }
-
@@ -0,0 +1,26 @@
+package com.togettoyou.fabricrealty.springbootserver.block.listener;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+
+import java.util.List;
+
+/**
+ * 区块采集的附加处理（交易索引等）。
+ * <p>
+ * 每批区块的 {@link #accept} 按 {@code @Order} 依次调用，与区块写入、推进 latest_blocks 在同一个数据库事务内；
+ * 任一 sink 抛错则整批回滚，监听从断点重新拉取，因此实现必须幂等。
+ * 文件、内存等无法随事务回滚的处理放在 {@link #afterCommit}。
+ */
+public interface BlockIngestionSink {
+    /**
+     * 在落库事务内调用，只应做 JDBC 写入。
+     */
+    default void accept(String ledgerKey, List<IngestedBlock> blocks) {
+    }
+
+    /**
+     * 事务提交后调用；失败只记录日志，不影响已提交的批次。
+     */
+    default void afterCommit(String ledgerKey, List<IngestedBlock> blocks) {
+    }
+}
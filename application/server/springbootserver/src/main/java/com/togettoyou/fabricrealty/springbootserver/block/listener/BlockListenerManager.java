@@ -1,12 +1,15 @@
 package com.togettoyou.fabricrealty.springbootserver.block.listener;
 
-import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockLedger;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockLedgerResolver;
 import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorage;
+import com.togettoyou.fabricrealty.springbootserver.common.TaskExecutors;
 import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
 import com.togettoyou.fabricrealty.springbootserver.config.FabricProperties;
 import com.togettoyou.fabricrealty.springbootserver.fabric.FabricErrorTranslator;
 import com.togettoyou.fabricrealty.springbootserver.fabric.FabricNetworkProvider;
 import org.hyperledger.fabric.client.Network;
+import org.hyperledger.fabric.protos.common.Block;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -15,11 +18,13 @@ import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PreDestroy;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.OptionalLong;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -30,29 +35,43 @@ public class BlockListenerManager {
     private final FabricProperties fabricProperties;
     private final FabricNetworkProvider networkProvider;
     private final BlockStorage blockStorage;
+    private final BlockPersister persister;
+    private final BlockLedgerResolver ledgerResolver;
+    private final BlockBackfillRunner backfillRunner;
     private final Duration retryInterval;
+    private final AppProperties appProperties;
 
-    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
-        Thread t = new Thread(runnable);
-        t.setName("block-listener-" + t.getId());
-        t.setDaemon(true);
-        return t;
-    });
+    /**
+     * 监听任务大部分时间阻塞在 gRPC 迭代器和重试 sleep 上，可按 app.virtualThreads 跑在虚拟线程。
+     * 写库任务固定使用平台线程：H2 JDBC 驱动内部大量使用 synchronized，在虚拟线程上执行会 pin 住载体线程。
+     */
+    private final ExecutorService executor;
+    private final ExecutorService writerExecutor = TaskExecutors.newPlatformExecutor("block-writer-");
 
     private final Map<String, Future<?>> tasks = new ConcurrentHashMap<>();
+    private final Map<String, BlockBatchWriter> writers = new ConcurrentHashMap<>();
+    private final Map<String, LedgerSync> syncs = new ConcurrentHashMap<>();
     private final AtomicBoolean running = new AtomicBoolean(false);
 
     public BlockListenerManager(
             FabricProperties fabricProperties,
             FabricNetworkProvider networkProvider,
             BlockStorage blockStorage,
+            BlockPersister persister,
+            BlockLedgerResolver ledgerResolver,
+            BlockBackfillRunner backfillRunner,
             AppProperties appProperties
     ) {
         this.fabricProperties = fabricProperties;
         this.networkProvider = networkProvider;
         this.blockStorage = blockStorage;
+        this.persister = persister;
+        this.ledgerResolver = ledgerResolver;
+        this.backfillRunner = backfillRunner;
         int seconds = Math.max(1, appProperties.blockRetrySeconds());
         this.retryInterval = Duration.ofSeconds(seconds);
+        this.appProperties = appProperties;
+        this.executor = TaskExecutors.newExecutor("block-listener-", appProperties.virtualThreads());
     }
 
     @EventListener(ApplicationReadyEvent.class)
@@ -66,56 +85,139 @@ public class BlockListenerManager {
             return;
         }
 
-        for (String orgName : fabricProperties.organizations().keySet()) {
-            tasks.put(orgName, executor.submit(() -> listenForever(orgName)));
+        List<BlockLedger> ledgers = ledgerResolver.ledgers();
+        for (BlockLedger ledger : ledgers) {
+            String ledgerKey = ledger.ledgerKey();
+            BlockBatchWriter writer = new BlockBatchWriter(
+                    ledgerKey,
+                    persister,
+                    appProperties.blockBatchSize(),
+                    Duration.ofMillis(appProperties.blockFlushMillis()),
+                    appProperties.blockQueueCapacity()
+            );
+            writers.put(ledgerKey, writer);
+            syncs.put(ledgerKey, new LedgerSync());
+            tasks.put(ledgerKey + "-writer", writerExecutor.submit(writer));
+            tasks.put(ledgerKey, executor.submit(() -> listenForever(ledger, writer)));
         }
-        log.info("Block listener started for orgs={}", fabricProperties.organizations().keySet());
+        log.info("Block listener started: ledgers={}", ledgers);
     }
 
-    private void listenForever(String orgName) {
+    private void listenForever(BlockLedger ledger, BlockBatchWriter writer) {
+        String ledgerKey = ledger.ledgerKey();
+        List<String> orgNames = ledger.orgNames();
+        int attempt = 0;
         while (running.get()) {
-            OptionalLong latest = blockStorage.getLatestBlockNum(orgName);
-            long startBlock = latest.isPresent() ? latest.getAsLong() + 1 : 0;
+            try {
+                writer.awaitDrained();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
 
+            // 共享通道的多个组织互为备份：上一次连接失败后换下一个组织的身份重连
+            String orgName = orgNames.get(Math.floorMod(attempt, orgNames.size()));
             Network network;
             try {
-                network = networkProvider.getNetwork(orgName);
+                network = networkProvider.getNetwork(orgName, ledger.channelName());
             } catch (Exception e) {
-                log.error("Block listener init failed: org={}, error={}", orgName, e.getMessage());
+                log.error("Block listener init failed: ledger={}, org={}, error={}", ledgerKey, orgName, e.getMessage());
+                attempt++;
                 sleepQuietly(retryInterval);
                 continue;
             }
 
-            log.info("Block listener connecting: org={}, startBlock={}", orgName, startBlock);
+            try {
+                if (!backfillRunner.run(ledgerKey, network, running)) {
+                    attempt++;
+                    sleepQuietly(retryInterval);
+                    continue;
+                }
+            } catch (Exception e) {
+                log.warn("Block backfill error: ledger={}, org={}, error={}", ledgerKey, orgName, FabricErrorTranslator.toUserMessage(e));
+                attempt++;
+                sleepQuietly(retryInterval);
+                continue;
+            }
+
+            OptionalLong latest = blockStorage.getLatestBlockNum(ledgerKey);
+            long startBlock = latest.isPresent() ? latest.getAsLong() + 1 : 0;
+
+            log.info("Block listener connecting: ledger={}, org={}, startBlock={}", ledgerKey, orgName, startBlock);
 
+            LedgerSync sync = syncs.get(ledgerKey);
             try (BlockEventStream stream = BlockEventsAccessor.open(network, startBlock)) {
-                var iterator = stream.iterator();
+                sync.connected(queryChainHeightQuietly(network));
+                Iterator<Block> iterator = stream.iterator();
                 while (running.get() && iterator.hasNext()) {
-                    Object event = iterator.next();
-                    BlockRecord record = BlockRecordParser.fromEvent(event);
-                    blockStorage.saveBlock(orgName, record);
-                    log.debug("Saved block: org={}, blockNum={}", orgName, record.blockNum());
+                    writer.put(BlockRecordParser.parse(iterator.next()));
                 }
                 if (running.get()) {
-                    log.warn("Block events stream ended: org={}, will retry after {}s", orgName, retryInterval.toSeconds());
+                    log.warn("Block events stream ended: ledger={}, org={}, will retry after {}s",
+                            ledgerKey, orgName, retryInterval.toSeconds());
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             } catch (Exception e) {
                 String msg = FabricErrorTranslator.toUserMessage(e);
-                log.warn("Block listener error: org={}, startBlock={}, error={}", orgName, startBlock, msg);
+                log.warn("Block listener error: ledger={}, org={}, startBlock={}, error={}", ledgerKey, orgName, startBlock, msg);
+            } finally {
+                sync.disconnected();
             }
 
+            attempt++;
             sleepQuietly(retryInterval);
         }
     }
 
+    /**
+     * 本地落库的数据（区块、交易索引、状态投影）与链上的差距是否在 maxStaleness 之内。
+     * <p>
+     * 事件流在线且已追上连接时的链高度，视为实时；断线后从最后一次实时的时刻开始计算陈旧时长。
+     */
+    public boolean isFresh(String ledgerKey, Duration maxStaleness) {
+        LedgerSync sync = syncs.get(ledgerKey);
+        BlockBatchWriter writer = writers.get(ledgerKey);
+        if (sync == null || writer == null || !writer.healthy()) {
+            return false;
+        }
+        Instant staleSince = sync.staleSince;
+        if (staleSince != null) {
+            return Duration.between(staleSince, Instant.now()).compareTo(maxStaleness) <= 0;
+        }
+        if (!sync.caughtUp) {
+            OptionalLong latest = blockStorage.getLatestBlockNum(ledgerKey);
+            if (latest.isEmpty() || latest.getAsLong() + 1 < sync.catchUpHeight) {
+                return false;
+            }
+            sync.caughtUp = true;
+        }
+        return true;
+    }
+
     @PreDestroy
     public void stop() {
         running.set(false);
+        for (BlockBatchWriter writer : writers.values()) {
+            writer.close();
+        }
+        writers.clear();
         for (Future<?> task : tasks.values()) {
             task.cancel(true);
         }
         tasks.clear();
         executor.shutdownNow();
+        writerExecutor.shutdownNow();
+    }
+
+    private static long queryChainHeightQuietly(Network network) {
+        try {
+            return BlockEventsAccessor.queryChainHeight(network);
+        } catch (Exception e) {
+            log.debug("Query chain height failed, ledger stays stale until reconnect: error={}", e.getMessage());
+            return Long.MAX_VALUE;
+        }
     }
 
     private static void sleepQuietly(Duration duration) {
@@ -125,5 +227,27 @@ public class BlockListenerManager {
             Thread.currentThread().interrupt();
         }
     }
-}
 
+    private static final class LedgerSync {
+        /**
+         * null 表示事件流在线；EPOCH 表示从未实时过。
+         */
+        private volatile Instant staleSince = Instant.EPOCH;
+        private volatile Instant staleSinceBeforeConnect = Instant.EPOCH;
+        private volatile long catchUpHeight = Long.MAX_VALUE;
+        private volatile boolean caughtUp;
+
+        void connected(long chainHeight) {
+            staleSinceBeforeConnect = staleSince == null ? Instant.now() : staleSince;
+            catchUpHeight = chainHeight;
+            caughtUp = false;
+            staleSince = null;
+        }
+
+        void disconnected() {
+            if (staleSince == null) {
+                staleSince = caughtUp ? Instant.now() : staleSinceBeforeConnect;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.togettoyou.fabricrealty.springbootserver.block.listener;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 一批已解析区块的落库顺序：在一个事务内先交给各 {@link BlockIngestionSink}，最后写区块并推进 latest_blocks；
+ * 提交后再依次调用各 sink 的 {@link BlockIngestionSink#afterCommit}。
+ * <p>
+ * 交易索引、状态投影与区块表要么一起提交，要么一起回滚，latest_blocks 不会与它们错开。
+ * <p>
+ * 同一账本的批次串行落库：回填多个分段并发拉取，但状态投影的创建判断、latest_blocks 推进等依赖事务间没有交错。
+ * <p>
+ * sink 在第一次落库时才解析：部分 sink 依赖区块监听，而区块监听又依赖本类。
+ */
+@Component
+public class BlockPersister {
+    private static final Logger log = LoggerFactory.getLogger(BlockPersister.class);
+
+    private final BlockStorage blockStorage;
+    private final ObjectProvider<BlockIngestionSink> sinkProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, ReentrantLock> ledgerLocks = new ConcurrentHashMap<>();
+    private volatile List<BlockIngestionSink> sinks;
+
+    public BlockPersister(
+            BlockStorage blockStorage,
+            ObjectProvider<BlockIngestionSink> sinks,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.blockStorage = blockStorage;
+        this.sinkProvider = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void persist(String ledgerKey, List<IngestedBlock> blocks) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        List<BlockRecord> records = new ArrayList<>(blocks.size());
+        for (IngestedBlock block : blocks) {
+            records.add(block.record());
+        }
+        List<BlockIngestionSink> sinks = sinks();
+        ReentrantLock lock = ledgerLocks.computeIfAbsent(ledgerKey, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (BlockIngestionSink sink : sinks) {
+                    sink.accept(ledgerKey, blocks);
+                }
+                blockStorage.saveBlocks(ledgerKey, records);
+            });
+            for (BlockIngestionSink sink : sinks) {
+                try {
+                    sink.afterCommit(ledgerKey, blocks);
+                } catch (Exception e) {
+                    log.warn("Block sink after-commit failed: ledger={}, sink={}, error={}",
+                            ledgerKey, sink.getClass().getSimpleName(), e.getMessage());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<BlockIngestionSink> sinks() {
+        List<BlockIngestionSink> resolved = sinks;
+        if (resolved == null) {
+            resolved = sinkProvider.orderedStream().toList();
+            sinks = resolved;
+        }
+        return resolved;
+    }
+}
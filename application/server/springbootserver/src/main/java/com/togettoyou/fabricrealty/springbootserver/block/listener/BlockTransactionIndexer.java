@@ -0,0 +1,29 @@
+package com.togettoyou.fabricrealty.springbootserver.block.listener;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockTransactionRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockTransactionStore;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@Order(100)
+public class BlockTransactionIndexer implements BlockIngestionSink {
+    private final BlockTransactionStore transactionStore;
+
+    public BlockTransactionIndexer(BlockTransactionStore transactionStore) {
+        this.transactionStore = transactionStore;
+    }
+
+    @Override
+    public void accept(String ledgerKey, List<IngestedBlock> blocks) {
+        List<BlockTransactionRecord> transactions = new ArrayList<>();
+        for (IngestedBlock block : blocks) {
+            transactions.addAll(block.transactions());
+        }
+        transactionStore.saveTransactions(ledgerKey, transactions);
+    }
+}
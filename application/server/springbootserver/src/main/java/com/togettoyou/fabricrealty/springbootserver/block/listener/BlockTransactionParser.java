@@ -0,0 +1,157 @@
+package com.togettoyou.fabricrealty.springbootserver.block.listener;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockTransactionRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.StateWrite;
+import org.hyperledger.fabric.protos.common.Block;
+import org.hyperledger.fabric.protos.common.BlockMetadataIndex;
+import org.hyperledger.fabric.protos.common.ChannelHeader;
+import org.hyperledger.fabric.protos.common.Envelope;
+import org.hyperledger.fabric.protos.common.HeaderType;
+import org.hyperledger.fabric.protos.common.Payload;
+import org.hyperledger.fabric.protos.ledger.rwset.NsReadWriteSet;
+import org.hyperledger.fabric.protos.ledger.rwset.TxReadWriteSet;
+import org.hyperledger.fabric.protos.ledger.rwset.kvrwset.KVRWSet;
+import org.hyperledger.fabric.protos.ledger.rwset.kvrwset.KVWrite;
+import org.hyperledger.fabric.protos.peer.ChaincodeAction;
+import org.hyperledger.fabric.protos.peer.ChaincodeActionPayload;
+import org.hyperledger.fabric.protos.peer.ChaincodeInvocationSpec;
+import org.hyperledger.fabric.protos.peer.ChaincodeProposalPayload;
+import org.hyperledger.fabric.protos.peer.ChaincodeSpec;
+import org.hyperledger.fabric.protos.peer.ProposalResponsePayload;
+import org.hyperledger.fabric.protos.peer.Transaction;
+import org.hyperledger.fabric.protos.peer.TransactionAction;
+import org.hyperledger.fabric.protos.peer.TxValidationCode;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 解码区块内每个 envelope：tx_id、时间戳、链码/函数名、校验通过交易的写集，以及 metadata 中 TRANSACTIONS_FILTER 给出的校验结果。
+ * <p>
+ * 一笔交易含多个 action 时逐个解码：链码名、函数名去重后以逗号拼接，写集按 action 顺序合并。
+ * <p>
+ * 校验通过的交易解码失败直接抛错（不应发生）；校验未通过的交易本身可能是畸形 envelope：
+ * 能解出 channel header 时按 header 中的 tx_id 和时间记录，链码/函数留空；连 header 都解不出的不入索引。
+ */
+public final class BlockTransactionParser {
+    private static final int MAX_NAME_LENGTH = 128;
+
+    private BlockTransactionParser() {
+    }
+
+    public static List<BlockTransactionRecord> parse(Block block) {
+        long blockNum = block.getHeader().getNumber();
+        ByteString filter = transactionsFilter(block);
+        int count = block.getData().getDataCount();
+        List<BlockTransactionRecord> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TxValidationCode code = validationCode(filter, i);
+            try {
+                transactions.add(parseEnvelope(block.getData().getData(i), blockNum, i, code));
+            } catch (InvalidProtocolBufferException | RuntimeException e) {
+                if (code == TxValidationCode.VALID) {
+                    throw new IllegalStateException("解析区块交易失败: block=" + blockNum + ", index=" + i + ", error=" + e.getMessage(), e);
+                }
+                ChannelHeader channelHeader = channelHeaderOrNull(block.getData().getData(i));
+                if (channelHeader != null) {
+                    transactions.add(new BlockTransactionRecord(truncate(channelHeader.getTxId()), blockNum, i, "", "",
+                            code.name(), toOffsetDateTime(channelHeader.getTimestamp()), List.of()));
+                }
+            }
+        }
+        return transactions;
+    }
+
+    private static BlockTransactionRecord parseEnvelope(ByteString data, long blockNum, int txIndex, TxValidationCode code)
+            throws InvalidProtocolBufferException {
+        Envelope envelope = Envelope.parseFrom(data);
+        Payload payload = Payload.parseFrom(envelope.getPayload());
+        ChannelHeader channelHeader = ChannelHeader.parseFrom(payload.getHeader().getChannelHeader());
+
+        Set<String> chaincodeNames = new LinkedHashSet<>();
+        Set<String> functionNames = new LinkedHashSet<>();
+        List<StateWrite> writes = new ArrayList<>();
+        if (channelHeader.getType() == HeaderType.ENDORSER_TRANSACTION_VALUE) {
+            Transaction transaction = Transaction.parseFrom(payload.getData());
+            for (TransactionAction action : transaction.getActionsList()) {
+                ChaincodeActionPayload actionPayload = ChaincodeActionPayload.parseFrom(action.getPayload());
+                ChaincodeProposalPayload proposalPayload = ChaincodeProposalPayload.parseFrom(actionPayload.getChaincodeProposalPayload());
+                ChaincodeSpec spec = ChaincodeInvocationSpec.parseFrom(proposalPayload.getInput()).getChaincodeSpec();
+                chaincodeNames.add(spec.getChaincodeId().getName());
+                if (spec.getInput().getArgsCount() > 0) {
+                    functionNames.add(spec.getInput().getArgs(0).toStringUtf8());
+                }
+                if (code == TxValidationCode.VALID) {
+                    writes.addAll(parseWrites(actionPayload));
+                }
+            }
+        }
+
+        return new BlockTransactionRecord(
+                truncate(channelHeader.getTxId()),
+                blockNum,
+                txIndex,
+                truncate(String.join(",", chaincodeNames)),
+                truncate(String.join(",", functionNames)),
+                code.name(),
+                toOffsetDateTime(channelHeader.getTimestamp()),
+                writes
+        );
+    }
+
+    private static ChannelHeader channelHeaderOrNull(ByteString data) {
+        try {
+            Payload payload = Payload.parseFrom(Envelope.parseFrom(data).getPayload());
+            return ChannelHeader.parseFrom(payload.getHeader().getChannelHeader());
+        } catch (InvalidProtocolBufferException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static List<StateWrite> parseWrites(ChaincodeActionPayload actionPayload) throws InvalidProtocolBufferException {
+        ProposalResponsePayload responsePayload = ProposalResponsePayload.parseFrom(
+                actionPayload.getAction().getProposalResponsePayload());
+        ChaincodeAction chaincodeAction = ChaincodeAction.parseFrom(responsePayload.getExtension());
+        TxReadWriteSet rwSet = TxReadWriteSet.parseFrom(chaincodeAction.getResults());
+        List<StateWrite> writes = new ArrayList<>();
+        for (NsReadWriteSet nsRwSet : rwSet.getNsRwsetList()) {
+            KVRWSet kvRwSet = KVRWSet.parseFrom(nsRwSet.getRwset());
+            for (KVWrite write : kvRwSet.getWritesList()) {
+                writes.add(new StateWrite(nsRwSet.getNamespace(), write.getKey(), write.getIsDelete(), write.getValue().toByteArray()));
+            }
+        }
+        return writes;
+    }
+
+    private static ByteString transactionsFilter(Block block) {
+        int index = BlockMetadataIndex.TRANSACTIONS_FILTER_VALUE;
+        if (block.getMetadata().getMetadataCount() <= index) {
+            return ByteString.EMPTY;
+        }
+        return block.getMetadata().getMetadata(index);
+    }
+
+    private static TxValidationCode validationCode(ByteString filter, int txIndex) {
+        if (txIndex >= filter.size()) {
+            return TxValidationCode.NOT_VALIDATED;
+        }
+        TxValidationCode code = TxValidationCode.forNumber(filter.byteAt(txIndex) & 0xFF);
+        return code == null ? TxValidationCode.INVALID_OTHER_REASON : code;
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_NAME_LENGTH ? value.substring(0, MAX_NAME_LENGTH) : value;
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Timestamp timestamp) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()), ZoneOffset.UTC);
+    }
+}
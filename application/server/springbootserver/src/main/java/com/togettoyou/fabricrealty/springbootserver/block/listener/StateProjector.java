@@ -0,0 +1,91 @@
+package com.togettoyou.fabricrealty.springbootserver.block.listener;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockTransactionRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.model.StateRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.StateWrite;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorage;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.StateProjectionStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 把校验通过交易的写集应用到本地状态投影，只镜像链码的 RE / TX 复合键。
+ * <p>
+ * 投影在账本为空时创建才视为完整；对已有区块的账本启用时只记录不对外读取，需清空账本数据重新回填。
+ */
+@Component
+@Order(200)
+public class StateProjector implements BlockIngestionSink {
+    private static final Logger log = LoggerFactory.getLogger(StateProjector.class);
+
+    private static final Set<String> OBJECT_TYPES = Set.of("RE", "TX");
+    private static final String KEY_DELIMITER = "\u0000";
+
+    private final StateProjectionStore projectionStore;
+    private final BlockStorage blockStorage;
+
+    public StateProjector(StateProjectionStore projectionStore, BlockStorage blockStorage) {
+        this.projectionStore = projectionStore;
+        this.blockStorage = blockStorage;
+    }
+
+    @Override
+    public void accept(String ledgerKey, List<IngestedBlock> blocks) {
+        if (projectionStore.findProjection(ledgerKey).isEmpty()) {
+            boolean complete = blockStorage.getLatestBlockNum(ledgerKey).isEmpty();
+            projectionStore.createProjection(ledgerKey, complete);
+            if (!complete) {
+                log.warn("State projection created on a non-empty ledger and will not serve reads: ledger={}", ledgerKey);
+            }
+        }
+
+        // 同一批内同一个键只保留版本最新的一次写入，合并后各键互不相同
+        Map<String, StateRecord> latest = new LinkedHashMap<>();
+        long highWaterBlock = -1;
+        for (IngestedBlock block : blocks) {
+            highWaterBlock = Math.max(highWaterBlock, block.record().blockNum());
+            for (BlockTransactionRecord tx : block.transactions()) {
+                for (StateWrite write : tx.writes()) {
+                    StateRecord record = toStateRecord(write, tx);
+                    if (record == null) {
+                        continue;
+                    }
+                    latest.merge(record.namespace() + KEY_DELIMITER + record.compositeKey(), record,
+                            (current, next) -> next.newerThan(current) ? next : current);
+                }
+            }
+        }
+        projectionStore.applyRecords(ledgerKey, new ArrayList<>(latest.values()), highWaterBlock);
+    }
+
+    private static StateRecord toStateRecord(StateWrite write, BlockTransactionRecord tx) {
+        String key = write.key();
+        if (!key.startsWith(KEY_DELIMITER) || !key.endsWith(KEY_DELIMITER)) {
+            return null;
+        }
+        String[] parts = key.substring(1, key.length() - 1).split(KEY_DELIMITER, -1);
+        if (parts.length != 3 || !OBJECT_TYPES.contains(parts[0])) {
+            return null;
+        }
+        return new StateRecord(
+                write.namespace(),
+                key,
+                parts[0],
+                parts[1],
+                parts[2],
+                write.delete() ? null : write.value(),
+                write.delete(),
+                tx.blockNum(),
+                tx.txIndex()
+        );
+    }
+}
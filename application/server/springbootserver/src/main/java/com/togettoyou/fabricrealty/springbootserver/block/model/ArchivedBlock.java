@@ -0,0 +1,18 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+import java.nio.file.Path;
+
+/**
+ * 原始区块在归档段文件中的位置。
+ *
+ * @param segment 段文件
+ * @param offset  区块字节在段文件中的起始偏移
+ * @param length  区块字节长度（protobuf 序列化后的 common.Block）
+ */
+public record ArchivedBlock(
+        long blockNum,
+        Path segment,
+        long offset,
+        int length
+) {
+}
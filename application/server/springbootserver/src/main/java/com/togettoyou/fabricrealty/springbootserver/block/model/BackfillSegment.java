@@ -0,0 +1,14 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+/**
+ * 历史回填分段：区间 [startBlock, endBlock)，nextBlock 为该段下一个待拉取的区块号。
+ */
+public record BackfillSegment(
+        long startBlock,
+        long endBlock,
+        long nextBlock
+) {
+    public boolean done() {
+        return nextBlock >= endBlock;
+    }
+}
@@ -0,0 +1,17 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+import java.util.List;
+
+/**
+ * 一份需要采集的区块账本。
+ *
+ * @param ledgerKey   存储键
+ * @param channelName 通道名
+ * @param orgNames    可读取该通道的组织（按配置顺序，第一个为首选采集身份，其余用于故障切换）
+ */
+public record BlockLedger(
+        String ledgerKey,
+        String channelName,
+        List<String> orgNames
+) {
+}
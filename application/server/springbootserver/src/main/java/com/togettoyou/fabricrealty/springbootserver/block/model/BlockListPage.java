@@ -0,0 +1,19 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+/**
+ * 一页 {@code /block/list} 的响应。
+ *
+ * @param latestBlockNum 渲染时账本的最新区块号
+ * @param blockCount     本页实际包含的区块数（回填未完成时可能少于页大小）
+ * @param lastModified   本页区块中最晚的落库时间（epoch 毫秒），空页为 0
+ * @param json           完整的 ApiResponse JSON
+ */
+public record BlockListPage(
+        long latestBlockNum,
+        int pageSize,
+        int pageNum,
+        int blockCount,
+        long lastModified,
+        byte[] json
+) {
+}
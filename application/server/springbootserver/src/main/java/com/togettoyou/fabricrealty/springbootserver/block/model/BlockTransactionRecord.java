@@ -0,0 +1,30 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * 区块内的一笔交易（一个 envelope）。
+ *
+ * @param txId           Fabric 交易 ID（channel header 中的 tx_id）
+ * @param txIndex        在区块内的位置（从 0 开始）
+ * @param chaincodeName  调用的链码，非背书交易（如配置交易）为空串
+ * @param functionName   链码函数（调用参数第一个），非背书交易为空串
+ * @param validationCode 提交时的校验结果（TxValidationCode 名称，如 VALID / MVCC_READ_CONFLICT）
+ * @param txTime         客户端构造提案时写入 channel header 的时间
+ * @param writes         读写集中的写入，仅校验通过的背书交易解码，其余为空（不落交易索引表）
+ */
+public record BlockTransactionRecord(
+        String txId,
+        long blockNum,
+        int txIndex,
+        String chaincodeName,
+        String functionName,
+        String validationCode,
+        OffsetDateTime txTime,
+        List<StateWrite> writes
+) {
+    public boolean valid() {
+        return "VALID".equals(validationCode);
+    }
+}
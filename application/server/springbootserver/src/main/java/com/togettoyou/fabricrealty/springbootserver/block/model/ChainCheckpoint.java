@@ -0,0 +1,10 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+/**
+ * 增量校验断点：[0, blockNum] 已连续校验，blockHash 为 blockNum 的区块哈希。
+ */
+public record ChainCheckpoint(
+        long blockNum,
+        String blockHash
+) {
+}
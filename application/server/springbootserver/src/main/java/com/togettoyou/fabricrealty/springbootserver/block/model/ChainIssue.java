@@ -0,0 +1,19 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 哈希链校验发现的问题。
+ *
+ * @param blockNum   出问题的区块号；GAP 为缺失区间的第一个区块号
+ * @param type       GAP（缺块）/ HASH_MISMATCH（block_hash 与重算结果不符）/ LINK_BROKEN（prev_hash 与上一块 block_hash 不符）
+ * @param detail     说明
+ * @param detectTime 发现时间
+ */
+public record ChainIssue(
+        long blockNum,
+        String type,
+        String detail,
+        OffsetDateTime detectTime
+) {
+}
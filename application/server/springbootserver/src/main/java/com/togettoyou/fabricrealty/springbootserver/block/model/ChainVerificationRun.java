@@ -0,0 +1,23 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 一次全量校验任务的结果。
+ *
+ * @param state         RUNNING / COMPLETED / FAILED
+ * @param toBlock       校验范围 [0, toBlock]
+ * @param checkedBlocks 已检查的区块数
+ * @param issueCount    发现的问题数
+ * @param error         FAILED 时的原因
+ */
+public record ChainVerificationRun(
+        String state,
+        OffsetDateTime startTime,
+        OffsetDateTime finishTime,
+        long toBlock,
+        long checkedBlocks,
+        int issueCount,
+        String error
+) {
+}
@@ -0,0 +1,20 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+import java.util.List;
+
+/**
+ * @param latestBlock     已落库的最大区块号，-1 表示账本为空
+ * @param verifiedThrough 增量校验已连续覆盖到的区块号，-1 表示尚未开始
+ * @param issueCount      累计发现的问题数
+ * @param recentIssues    最近的问题（按区块号倒序）
+ * @param lastRun         最近一次全量校验，未执行过为 null
+ */
+public record ChainVerificationStatus(
+        String ledgerKey,
+        long latestBlock,
+        long verifiedThrough,
+        long issueCount,
+        List<ChainIssue> recentIssues,
+        ChainVerificationRun lastRun
+) {
+}
@@ -0,0 +1,15 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+import org.hyperledger.fabric.protos.common.Block;
+
+import java.util.List;
+
+/**
+ * 采集流水线中传递的已解析区块：header 摘要 + 交易明细，以及原始区块（供归档使用）。
+ */
+public record IngestedBlock(
+        BlockRecord record,
+        List<BlockTransactionRecord> transactions,
+        Block block
+) {
+}
@@ -0,0 +1,11 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+/**
+ * @param complete       投影是否从创世区块开始构建；账本已有区块后才启用投影时为 false，此时不对外提供读取
+ * @param highWaterBlock 已应用到投影的最大区块号
+ */
+public record StateProjection(
+        boolean complete,
+        long highWaterBlock
+) {
+}
@@ -0,0 +1,30 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+/**
+ * 本地状态投影中的一条链码状态，键结构与链码的复合键一致：\u0000objectType\u0000status\u0000id\u0000。
+ *
+ * @param namespace    链码名
+ * @param compositeKey 完整复合键
+ * @param objectType   RE（房产）或 TX（交易）
+ * @param status       复合键第一个属性（状态）
+ * @param objectId     复合键第二个属性（ID）
+ * @param value        最新值，删除时为 null
+ * @param deleted      是否已被删除（保留为墓碑，防止乱序回填时旧写入覆盖删除）
+ * @param blockNum     写入所在区块
+ * @param txIndex      写入所在交易在区块中的序号
+ */
+public record StateRecord(
+        String namespace,
+        String compositeKey,
+        String objectType,
+        String status,
+        String objectId,
+        byte[] value,
+        boolean deleted,
+        long blockNum,
+        int txIndex
+) {
+    public boolean newerThan(StateRecord other) {
+        return blockNum != other.blockNum ? blockNum > other.blockNum : txIndex > other.txIndex;
+    }
+}
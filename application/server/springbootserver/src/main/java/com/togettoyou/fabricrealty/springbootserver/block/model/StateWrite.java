@@ -0,0 +1,17 @@
+package com.togettoyou.fabricrealty.springbootserver.block.model;
+
+/**
+ * 交易读写集中的一条写入（KVWrite）。
+ *
+ * @param namespace 链码名
+ * @param key       状态键（复合键以 \u0000 分隔）
+ * @param delete    是否为删除
+ * @param value     写入的值，删除时为空数组
+ */
+public record StateWrite(
+        String namespace,
+        String key,
+        boolean delete,
+        byte[] value
+) {
+}
@@ -0,0 +1,365 @@
+package com.togettoyou.fabricrealty.springbootserver.block.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockDataDto;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockCommitListener;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorage;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorageException;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.LatestBlockRegistry;
+import com.togettoyou.fabricrealty.springbootserver.common.TaskExecutors;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 新落库区块的 SSE 推送。
+ * <p>
+ * 每个账本一个定长环形缓冲：提交通知只把比已推送区块更新的区块序列化一次追加进去，再唤醒订阅者；
+ * 订阅者各自记录发送位置，有待发事件时才由共享线程池排空，空闲连接不占线程。
+ * 落后超过缓冲长度的订阅者直接断开，客户端带 {@code Last-Event-ID}（区块号）重连后先从存储补发缺口
+ * （最多一个缓冲长度的最新区块），再接着缓冲继续。
+ */
+@Component
+public class BlockEventHub implements BlockCommitListener {
+    private static final Logger log = LoggerFactory.getLogger(BlockEventHub.class);
+    private static final String EVENT_NAME = "block";
+
+    private final BlockStorage blockStorage;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final Map<String, LedgerStream> streams = new ConcurrentHashMap<>();
+
+    public BlockEventHub(BlockStorage blockStorage, ObjectMapper objectMapper, AppProperties appProperties,
+                         LatestBlockRegistry latestRegistry) {
+        this.blockStorage = blockStorage;
+        this.objectMapper = objectMapper;
+        this.bufferSize = appProperties.blockStreamBufferSize();
+        this.senders = TaskExecutors.newExecutor("block-push-", appProperties.virtualThreads());
+        this.heartbeats = TaskExecutors.newScheduledExecutor("block-push-heartbeat");
+        long heartbeatSeconds = appProperties.blockStreamHeartbeatSeconds();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        latestRegistry.subscribe(this);
+    }
+
+    /**
+     * @param lastEventId 客户端重连时带回的最后一个区块号，为空则只推送之后的新区块
+     */
+    public SseEmitter subscribe(String ledgerKey, String lastEventId) {
+        LedgerStream stream = streams.computeIfAbsent(ledgerKey,
+                key -> new LedgerStream(bufferSize, blockStorage.getLatestBlockNum(key).orElse(-1)));
+        // 不设超时，断开的连接由心跳写失败发现
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(ledgerKey, stream, emitter);
+        emitter.onCompletion(() -> detach(subscriber));
+        emitter.onTimeout(() -> detach(subscriber));
+        emitter.onError(e -> detach(subscriber));
+        stream.attach(subscriber, parseEventId(lastEventId));
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @Override
+    public void onBlocksCommitted(String ledgerKey, long latestBlockNum, List<BlockRecord> blocks) {
+        LedgerStream stream = streams.get(ledgerKey);
+        if (stream == null) {
+            return;
+        }
+        // 回填写入的历史区块不推送，也不必序列化
+        long pushedThrough = stream.lastBlockNum();
+        List<BlockRecord> fresh = new ArrayList<>();
+        for (BlockRecord block : blocks) {
+            if (block.blockNum() > pushedThrough) {
+                fresh.add(block);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+        fresh.sort(Comparator.comparingLong(BlockRecord::blockNum));
+        List<Event> events = new ArrayList<>(fresh.size());
+        for (BlockRecord block : fresh) {
+            events.add(new Event(block.blockNum(), toJson(block)));
+        }
+        long oldest = stream.append(events);
+        for (Subscriber subscriber : stream.subscribers) {
+            if (subscriber.cursor < oldest && subscriber.draining.get()) {
+                // 还卡在上一次写出上，不能再等它；发送线程写失败或写完后结束响应并退出
+                evict(subscriber, false);
+            } else {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeats.shutdownNow();
+        for (LedgerStream stream : streams.values()) {
+            for (Subscriber subscriber : stream.subscribers) {
+                subscriber.closed = true;
+                subscriber.emitter.complete();
+            }
+            stream.subscribers.clear();
+        }
+        senders.shutdownNow();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.closed || !subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.replayFrom >= 0) {
+                replay(subscriber);
+            }
+            while (!subscriber.closed) {
+                List<Event> events = subscriber.stream.read(subscriber.cursor);
+                if (events == null) {
+                    evict(subscriber, true);
+                    return;
+                }
+                if (events.isEmpty()) {
+                    if (subscriber.heartbeatDue) {
+                        subscriber.heartbeatDue = false;
+                        subscriber.emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                    break;
+                }
+                for (Event event : events) {
+                    send(subscriber, event.blockNum(), event.json());
+                }
+                subscriber.cursor += events.size();
+                subscriber.heartbeatDue = false;
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Block stream subscriber disconnected: ledger={}, error={}", subscriber.ledgerKey, e.getMessage());
+            detach(subscriber);
+        } catch (Exception e) {
+            log.warn("Block stream send failed: ledger={}, error={}", subscriber.ledgerKey, e.getMessage());
+            evict(subscriber, true);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (subscriber.closed) {
+            completeEvicted(subscriber);
+            return;
+        }
+        // 排空结束与新事件到达之间的竞争：结束后再看一眼，避免事件滞留到下一次提交
+        if (!subscriber.closed && subscriber.stream.hasAfter(subscriber.cursor)) {
+            schedule(subscriber);
+        }
+    }
+
+    private void replay(Subscriber subscriber) throws IOException {
+        List<BlockRecord> blocks = blockStorage.findBlocks(subscriber.ledgerKey, subscriber.replayFrom, subscriber.replayTo);
+        for (BlockRecord block : blocks) {
+            send(subscriber, block.blockNum(), toJson(block));
+        }
+        subscriber.replayFrom = -1;
+    }
+
+    private void send(Subscriber subscriber, long blockNum, String json) throws IOException {
+        subscriber.emitter.send(SseEmitter.event()
+                .id(Long.toString(blockNum))
+                .name(EVENT_NAME)
+                .data(json, MediaType.APPLICATION_JSON));
+    }
+
+    private void heartbeat() {
+        for (LedgerStream stream : streams.values()) {
+            for (Subscriber subscriber : stream.subscribers) {
+                subscriber.heartbeatDue = true;
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * @param complete 是否立即结束响应；卡在写出上的订阅者只能先摘除，调用 complete 会跟着阻塞，
+     *                 由发送线程退出时（或此时已没有发送线程）再结束
+     */
+    private void evict(Subscriber subscriber, boolean complete) {
+        if (subscriber.closed) {
+            return;
+        }
+        log.info("Evicting slow block stream subscriber: ledger={}, cursor={}", subscriber.ledgerKey, subscriber.cursor);
+        detach(subscriber);
+        if (complete) {
+            subscriber.emitter.complete();
+            return;
+        }
+        subscriber.completePending.set(true);
+        if (!subscriber.draining.get()) {
+            completeEvicted(subscriber);
+        }
+    }
+
+    /**
+     * 发送线程退出与摘除都会调用，completePending 保证只结束一次。
+     */
+    private void completeEvicted(Subscriber subscriber) {
+        if (subscriber.completePending.compareAndSet(true, false)) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void detach(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.stream.subscribers.remove(subscriber);
+    }
+
+    private String toJson(BlockRecord block) {
+        try {
+            return objectMapper.writeValueAsString(new BlockDataDto(
+                    block.blockNum(),
+                    block.blockHash(),
+                    block.dataHash(),
+                    block.prevHash(),
+                    block.txCount(),
+                    block.saveTime()
+            ));
+        } catch (JsonProcessingException e) {
+            throw new BlockStorageException("序列化区块失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Event(long blockNum, String json) {
+    }
+
+    private static final class Subscriber {
+        private final String ledgerKey;
+        private final LedgerStream stream;
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean completePending = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile boolean heartbeatDue;
+        private volatile boolean closed;
+        private long replayFrom = -1;
+        private long replayTo = -1;
+
+        Subscriber(String ledgerKey, LedgerStream stream, SseEmitter emitter) {
+            this.ledgerKey = ledgerKey;
+            this.stream = stream;
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * 环形缓冲按序号寻址：序号 seq 的事件位于 ring[seq % 长度]，只保留最近一个缓冲长度的事件；区块号严格递增。
+     */
+    private static final class LedgerStream {
+        private final Event[] ring;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private long head;
+        private long lastBlockNum;
+
+        LedgerStream(int capacity, long lastBlockNum) {
+            this.ring = new Event[capacity];
+            this.lastBlockNum = lastBlockNum;
+        }
+
+        synchronized long lastBlockNum() {
+            return lastBlockNum;
+        }
+
+        /**
+         * 追加比已推送区块更新的事件，返回追加后缓冲中最旧事件的序号。
+         */
+        synchronized long append(List<Event> events) {
+            for (Event event : events) {
+                if (event.blockNum() <= lastBlockNum) {
+                    continue;
+                }
+                ring[(int) (head % ring.length)] = event;
+                head++;
+                lastBlockNum = event.blockNum();
+            }
+            return oldest();
+        }
+
+        /**
+         * 返回从 cursor 开始的全部事件；cursor 已被覆盖（订阅者落后超过一个缓冲长度）返回 null。
+         */
+        synchronized List<Event> read(long cursor) {
+            if (cursor < oldest()) {
+                return null;
+            }
+            List<Event> events = new ArrayList<>((int) (head - cursor));
+            for (long seq = cursor; seq < head; seq++) {
+                events.add(ring[(int) (seq % ring.length)]);
+            }
+            return events;
+        }
+
+        synchronized boolean hasAfter(long cursor) {
+            return cursor < head;
+        }
+
+        /**
+         * 定位重连订阅者的起点：缓冲内还有的从缓冲发，缓冲之前的缺口从存储补发。
+         */
+        synchronized void attach(Subscriber subscriber, long resumeAfter) {
+            long cursor = head;
+            if (resumeAfter >= 0 && resumeAfter < lastBlockNum) {
+                for (long seq = head - 1; seq >= oldest(); seq--) {
+                    if (ring[(int) (seq % ring.length)].blockNum() <= resumeAfter) {
+                        break;
+                    }
+                    cursor = seq;
+                }
+                long firstBuffered = cursor < head ? ring[(int) (cursor % ring.length)].blockNum() : lastBlockNum + 1;
+                if (resumeAfter + 1 < firstBuffered) {
+                    subscriber.replayFrom = Math.max(resumeAfter + 1, firstBuffered - ring.length);
+                    subscriber.replayTo = firstBuffered - 1;
+                }
+            }
+            subscriber.cursor = cursor;
+            subscribers.add(subscriber);
+        }
+
+        private long oldest() {
+            return Math.max(0, head - ring.length);
+        }
+    }
+}
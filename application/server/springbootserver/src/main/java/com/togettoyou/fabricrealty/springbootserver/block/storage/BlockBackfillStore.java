@@ -0,0 +1,18 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BackfillSegment;
+
+import java.util.List;
+
+public interface BlockBackfillStore {
+    List<BackfillSegment> loadSegments(String ledgerKey);
+
+    void createSegments(String ledgerKey, List<BackfillSegment> segments);
+
+    /**
+     * 把包含 firstBlock 的分段推进到 nextBlock；只有该段断点不晚于 firstBlock（批次与断点连续）时才推进。
+     */
+    void advanceProgress(String ledgerKey, long firstBlock, long nextBlock);
+
+    void clearSegments(String ledgerKey);
+}
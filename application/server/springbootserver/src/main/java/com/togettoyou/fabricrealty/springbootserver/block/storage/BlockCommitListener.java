@@ -0,0 +1,14 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+
+import java.util.List;
+
+/**
+ * 区块落库提交后的通知，通过 {@link LatestBlockRegistry#subscribe} 订阅。
+ * <p>
+ * 在写库线程上同步回调，实现必须快速返回、不抛异常；回填分段乱序提交时 blocks 可能低于 latestBlockNum。
+ */
+public interface BlockCommitListener {
+    void onBlocksCommitted(String ledgerKey, long latestBlockNum, List<BlockRecord> blocks);
+}
@@ -0,0 +1,105 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockLedger;
+import com.togettoyou.fabricrealty.springbootserver.config.FabricProperties;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 升级前 blocks / latest_blocks / block_backfill_segments 按组织名存储（每个组织各采一份默认通道），
+ * 现在按账本键（通道名）存储。启动时把最新区块号最大的那个组织的行改名为默认通道的账本键，
+ * 删除其余组织的重复行，避免旧数据成为孤儿、监听从 0 重新回填整条链。
+ * <p>
+ * 在单例初始化阶段执行，早于 HTTP 服务、区块监听和 mapped 存储导入；账本键已有数据或没有旧行时不做任何事。
+ */
+@Component
+public class BlockLedgerKeyMigration {
+    private static final Logger log = LoggerFactory.getLogger(BlockLedgerKeyMigration.class);
+    private static final List<String> TABLES = List.of("blocks", "latest_blocks", "block_backfill_segments");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FabricProperties fabricProperties;
+    private final BlockLedgerResolver ledgerResolver;
+    private final TransactionTemplate transactionTemplate;
+
+    public BlockLedgerKeyMigration(
+            JdbcTemplate jdbcTemplate,
+            FabricProperties fabricProperties,
+            BlockLedgerResolver ledgerResolver,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fabricProperties = fabricProperties;
+        this.ledgerResolver = ledgerResolver;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (fabricProperties.organizations() == null || fabricProperties.organizations().isEmpty()) {
+            return;
+        }
+        List<BlockLedger> ledgers = ledgerResolver.ledgers();
+        Set<String> ledgerKeys = new HashSet<>();
+        String target = null;
+        for (BlockLedger ledger : ledgers) {
+            ledgerKeys.add(ledger.ledgerKey());
+            if (ledger.channelName().equals(fabricProperties.channelName())) {
+                target = ledger.ledgerKey();
+            }
+        }
+        if (target == null) {
+            return;
+        }
+        // 与某个账本键同名的组织无法区分新旧数据，不动
+        List<String> legacyKeys = new ArrayList<>();
+        for (String orgName : fabricProperties.organizations().keySet()) {
+            if (!ledgerKeys.contains(orgName)) {
+                legacyKeys.add(orgName);
+            }
+        }
+        if (legacyKeys.isEmpty()) {
+            return;
+        }
+
+        String ledgerKey = target;
+        transactionTemplate.executeWithoutResult(status -> migrate(ledgerKey, legacyKeys));
+    }
+
+    private void migrate(String ledgerKey, List<String> legacyKeys) {
+        String placeholders = String.join(",", legacyKeys.stream().map(key -> "?").toList());
+        List<Map<String, Object>> legacy = jdbcTemplate.queryForList(
+                "SELECT org_name, block_num FROM latest_blocks WHERE org_name IN (" + placeholders + ") ORDER BY block_num DESC",
+                legacyKeys.toArray());
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM latest_blocks WHERE org_name = ?", Integer.class, ledgerKey);
+
+        String renamed = null;
+        if (!legacy.isEmpty() && (existing == null || existing == 0)) {
+            renamed = (String) legacy.get(0).get("org_name");
+            for (String table : TABLES) {
+                jdbcTemplate.update("UPDATE " + table + " SET org_name = ? WHERE org_name = ?", ledgerKey, renamed);
+            }
+        }
+        int deleted = 0;
+        for (String table : TABLES) {
+            deleted += jdbcTemplate.update("DELETE FROM " + table + " WHERE org_name IN (" + placeholders + ")",
+                    legacyKeys.toArray());
+        }
+        if (renamed != null || deleted > 0) {
+            log.info("Migrated per-organization block rows to ledger key: ledger={}, renamedFrom={}, deletedRows={}",
+                    ledgerKey, renamed, deleted);
+        }
+    }
+}
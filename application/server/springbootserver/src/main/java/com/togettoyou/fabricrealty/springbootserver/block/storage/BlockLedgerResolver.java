@@ -0,0 +1,56 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockLedger;
+import com.togettoyou.fabricrealty.springbootserver.config.FabricProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * (组织, 通道) -> 区块账本键的映射。
+ * <p>
+ * 同一通道的账本对所有组织都相同，因此按通道采集、按通道存储一份（账本键即通道名），
+ * 共享通道的组织查询同一份数据；只有组织看到的通道不同时才会各自拥有独立的区块流。
+ * 区块与链码无关，同一通道上的多个链码共用该通道的账本。
+ */
+@Component
+public class BlockLedgerResolver {
+    private final FabricProperties fabricProperties;
+
+    public BlockLedgerResolver(FabricProperties fabricProperties) {
+        this.fabricProperties = fabricProperties;
+    }
+
+    /**
+     * 默认通道（fabric.channelName）。
+     */
+    public String ledgerKey(String orgName) {
+        return ledgerKey(orgName, fabricProperties.channelName());
+    }
+
+    public String ledgerKey(String orgName, String channelName) {
+        if (!fabricProperties.channelsOf(orgName).containsKey(channelName)) {
+            throw new IllegalArgumentException("组织[" + orgName + "]未配置通道: " + channelName);
+        }
+        return channelName;
+    }
+
+    public List<BlockLedger> ledgers() {
+        Map<String, List<String>> orgsByChannel = new LinkedHashMap<>();
+        if (fabricProperties.organizations() == null) {
+            return List.of();
+        }
+        for (String orgName : fabricProperties.organizations().keySet()) {
+            for (String channelName : fabricProperties.channelsOf(orgName).keySet()) {
+                orgsByChannel.computeIfAbsent(channelName, key -> new ArrayList<>()).add(orgName);
+            }
+        }
+        List<BlockLedger> ledgers = new ArrayList<>();
+        orgsByChannel.forEach((channelName, orgNames) ->
+                ledgers.add(new BlockLedger(channelName, channelName, List.copyOf(orgNames))));
+        return ledgers;
+    }
+}
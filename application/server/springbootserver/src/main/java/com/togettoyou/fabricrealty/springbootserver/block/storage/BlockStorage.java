@@ -3,13 +3,26 @@ package com.togettoyou.fabricrealty.springbootserver.block.storage;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockQueryResultDto;
 import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
 
+import java.util.List;
 import java.util.OptionalLong;
 
+/**
+ * 区块存储，按账本键隔离（见 {@link BlockLedgerResolver}，同一通道的组织共享同一账本键）。
+ */
 public interface BlockStorage {
-    OptionalLong getLatestBlockNum(String orgName);
+    OptionalLong getLatestBlockNum(String ledgerKey);
 
-    void saveBlock(String orgName, BlockRecord block);
+    void saveBlock(String ledgerKey, BlockRecord block);
 
-    BlockQueryResultDto queryBlocks(String orgName, int pageSize, int pageNum);
-}
+    /**
+     * 批量落库：一次事务写入全部区块，并只更新一次 latest_blocks。
+     */
+    void saveBlocks(String ledgerKey, List<BlockRecord> blocks);
+
+    /**
+     * 按区块号升序返回 [fromBlock, toBlock] 内已落库的区块，缺失的区块号直接跳过。
+     */
+    List<BlockRecord> findBlocks(String ledgerKey, long fromBlock, long toBlock);
 
+    BlockQueryResultDto queryBlocks(String ledgerKey, int pageSize, int pageNum);
+}
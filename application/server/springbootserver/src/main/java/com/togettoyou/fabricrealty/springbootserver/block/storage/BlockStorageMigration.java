@@ -0,0 +1,91 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockLedger;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * 切换到 app.blockStorage=mapped 后，把 H2 blocks 表中已有的区块一次性导入槽位文件。
+ * <p>
+ * 在区块监听启动（ApplicationReadyEvent）之前运行；槽位文件的 latest 落后于 H2 latest_blocks 时从 latest + 1 续导，
+ * 中途崩溃重启后自动接着导入，追平后不再执行。H2 中的数据保留不动。
+ * <p>
+ * 只导入当前配置的账本；导入直接写槽位文件，不通知页缓存和区块推送（历史区块不是新提交）。
+ */
+@Component
+@ConditionalOnProperty(prefix = "app", name = "blockStorage", havingValue = "mapped")
+public class BlockStorageMigration implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(BlockStorageMigration.class);
+    private static final int CHUNK_SIZE = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MappedBlockStorage blockStorage;
+    private final BlockLedgerResolver ledgerResolver;
+
+    public BlockStorageMigration(JdbcTemplate jdbcTemplate, MappedBlockStorage blockStorage, BlockLedgerResolver ledgerResolver) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockStorage = blockStorage;
+        this.ledgerResolver = ledgerResolver;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (BlockLedger ledger : ledgerResolver.ledgers()) {
+            String ledgerKey = ledger.ledgerKey();
+            List<Long> h2Rows = jdbcTemplate.queryForList(
+                    "SELECT block_num FROM latest_blocks WHERE org_name = ?", Long.class, ledgerKey);
+            if (h2Rows.isEmpty()) {
+                continue;
+            }
+            long h2Latest = h2Rows.get(0);
+            long latest = blockStorage.getLatestBlockNum(ledgerKey).orElse(-1);
+            if (latest >= h2Latest) {
+                continue;
+            }
+            long migrated = migrate(ledgerKey, latest + 1);
+            log.info("Block storage migrated from H2: ledger={}, fromBlock={}, blocks={}", ledgerKey, latest + 1, migrated);
+        }
+    }
+
+    private long migrate(String ledgerKey, long fromBlock) {
+        long migrated = 0;
+        long next = fromBlock;
+        while (true) {
+            List<BlockRecord> chunk = jdbcTemplate.query(
+                    "SELECT block_num, block_hash, data_hash, prev_hash, tx_count, save_time FROM blocks " +
+                            "WHERE org_name = ? AND block_num >= ? ORDER BY block_num LIMIT ?",
+                    (rs, rowNum) -> new BlockRecord(
+                            rs.getLong("block_num"),
+                            rs.getString("block_hash"),
+                            rs.getString("data_hash"),
+                            rs.getString("prev_hash"),
+                            rs.getInt("tx_count"),
+                            readOffsetDateTimeUtc(rs.getObject("save_time", OffsetDateTime.class))
+                    ),
+                    ledgerKey,
+                    next,
+                    CHUNK_SIZE
+            );
+            if (chunk.isEmpty()) {
+                return migrated;
+            }
+            blockStorage.importBlocks(ledgerKey, chunk);
+            migrated += chunk.size();
+            next = chunk.get(chunk.size() - 1).blockNum() + 1;
+        }
+    }
+
+    private static OffsetDateTime readOffsetDateTimeUtc(OffsetDateTime value) {
+        return value == null ? OffsetDateTime.now(ZoneOffset.UTC) : value.withOffsetSameInstant(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,20 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockTransactionRecord;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 交易级索引：每笔交易一行，按 txId、按区块号索引。
+ */
+public interface BlockTransactionStore {
+    void saveTransactions(String ledgerKey, List<BlockTransactionRecord> transactions);
+
+    /**
+     * 同一 txId 可能出现多次（重复提交被标记为 DUPLICATE_TXID），优先返回校验通过的那一笔。
+     */
+    Optional<BlockTransactionRecord> findByTxId(String ledgerKey, String txId);
+
+    List<BlockTransactionRecord> findByBlock(String ledgerKey, long blockNum);
+}
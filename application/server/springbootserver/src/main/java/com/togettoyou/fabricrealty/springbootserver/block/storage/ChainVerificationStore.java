@@ -0,0 +1,23 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.ChainCheckpoint;
+import com.togettoyou.fabricrealty.springbootserver.block.model.ChainIssue;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ChainVerificationStore {
+    Optional<ChainCheckpoint> findCheckpoint(String ledgerKey);
+
+    void saveCheckpoint(String ledgerKey, ChainCheckpoint checkpoint);
+
+    /**
+     * 用本次校验 [fromBlock, toBlock] 的结果替换该区间内已记录的问题：已修复的问题随之删除，
+     * 同一区块同一类型的问题只保留一条。
+     */
+    void replaceIssues(String ledgerKey, long fromBlock, long toBlock, List<ChainIssue> issues);
+
+    List<ChainIssue> findRecentIssues(String ledgerKey, int limit);
+
+    long countIssues(String ledgerKey);
+}
@@ -0,0 +1,67 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BackfillSegment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public class JdbcBlockBackfillStore implements BlockBackfillStore {
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcBlockBackfillStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<BackfillSegment> loadSegments(String ledgerKey) {
+        return jdbcTemplate.query(
+                "SELECT start_block, end_block, next_block FROM block_backfill_segments " +
+                        "WHERE org_name = ? ORDER BY start_block",
+                (rs, rowNum) -> new BackfillSegment(
+                        rs.getLong("start_block"),
+                        rs.getLong("end_block"),
+                        rs.getLong("next_block")
+                ),
+                ledgerKey
+        );
+    }
+
+    @Override
+    @Transactional
+    public void createSegments(String ledgerKey, List<BackfillSegment> segments) {
+        jdbcTemplate.update("DELETE FROM block_backfill_segments WHERE org_name = ?", ledgerKey);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO block_backfill_segments (org_name, start_block, end_block, next_block) VALUES (?, ?, ?, ?)",
+                segments,
+                segments.size(),
+                (ps, segment) -> {
+                    ps.setString(1, ledgerKey);
+                    ps.setLong(2, segment.startBlock());
+                    ps.setLong(3, segment.endBlock());
+                    ps.setLong(4, segment.nextBlock());
+                }
+        );
+    }
+
+    @Override
+    public void advanceProgress(String ledgerKey, long firstBlock, long nextBlock) {
+        jdbcTemplate.update(
+                "UPDATE block_backfill_segments SET next_block = ? WHERE org_name = ? AND start_block <= ? AND end_block > ? " +
+                        "AND next_block >= ? AND next_block < ?",
+                nextBlock,
+                ledgerKey,
+                firstBlock,
+                firstBlock,
+                firstBlock,
+                nextBlock
+        );
+    }
+
+    @Override
+    public void clearSegments(String ledgerKey) {
+        jdbcTemplate.update("DELETE FROM block_backfill_segments WHERE org_name = ?", ledgerKey);
+    }
+}
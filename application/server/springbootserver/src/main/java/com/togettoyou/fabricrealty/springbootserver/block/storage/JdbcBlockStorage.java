@@ -3,9 +3,12 @@ package com.togettoyou.fabricrealty.springbootserver.block.storage;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockDataDto;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockQueryResultDto;
 import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
@@ -13,55 +16,116 @@ import java.util.List;
 import java.util.OptionalLong;
 
 @Repository
+@ConditionalOnProperty(prefix = "app", name = "blockStorage", havingValue = "jdbc", matchIfMissing = true)
 public class JdbcBlockStorage implements BlockStorage {
     private final JdbcTemplate jdbcTemplate;
+    private final LatestBlockRegistry latestRegistry;
 
-    public JdbcBlockStorage(JdbcTemplate jdbcTemplate) {
+    public JdbcBlockStorage(JdbcTemplate jdbcTemplate, LatestBlockRegistry latestRegistry) {
         this.jdbcTemplate = jdbcTemplate;
+        this.latestRegistry = latestRegistry;
     }
 
     @Override
-    public OptionalLong getLatestBlockNum(String orgName) {
+    public OptionalLong getLatestBlockNum(String ledgerKey) {
+        return latestRegistry.latest(ledgerKey, this::loadLatestBlockNum);
+    }
+
+    private long loadLatestBlockNum(String ledgerKey) {
         List<Long> rows = jdbcTemplate.query(
                 "SELECT block_num FROM latest_blocks WHERE org_name = ?",
                 (rs, rowNum) -> rs.getLong("block_num"),
-                orgName
+                ledgerKey
         );
-        if (rows.isEmpty()) {
-            return OptionalLong.empty();
-        }
-        return OptionalLong.of(rows.get(0));
+        return rows.isEmpty() ? -1 : rows.get(0);
     }
 
     @Override
     @Transactional
-    public void saveBlock(String orgName, BlockRecord block) {
-        jdbcTemplate.update(
+    public void saveBlock(String ledgerKey, BlockRecord block) {
+        saveBlocks(ledgerKey, List.of(block));
+    }
+
+    @Override
+    @Transactional
+    public void saveBlocks(String ledgerKey, List<BlockRecord> blocks) {
+        if (blocks == null || blocks.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(
                 "MERGE INTO blocks (org_name, block_num, block_hash, data_hash, prev_hash, tx_count, save_time) " +
                         "KEY (org_name, block_num) VALUES (?, ?, ?, ?, ?, ?, ?)",
-                orgName,
-                block.blockNum(),
-                block.blockHash(),
-                block.dataHash(),
-                block.prevHash(),
-                block.txCount(),
-                block.saveTime()
+                blocks,
+                blocks.size(),
+                (ps, block) -> {
+                    ps.setString(1, ledgerKey);
+                    ps.setLong(2, block.blockNum());
+                    ps.setString(3, block.blockHash());
+                    ps.setString(4, block.dataHash());
+                    ps.setString(5, block.prevHash());
+                    ps.setInt(6, block.txCount());
+                    ps.setObject(7, block.saveTime());
+                }
         );
 
+        BlockRecord latest = blocks.get(0);
+        for (BlockRecord block : blocks) {
+            if (block.blockNum() > latest.blockNum()) {
+                latest = block;
+            }
+        }
+        // 只前进不后退：历史回填按分段乱序写入时，latest_blocks 仍保持已写入的最大区块号
         jdbcTemplate.update(
-                "MERGE INTO latest_blocks (org_name, block_num, save_time) KEY (org_name) VALUES (?, ?, ?)",
-                orgName,
-                block.blockNum(),
-                block.saveTime()
+                "MERGE INTO latest_blocks t USING (SELECT CAST(? AS VARCHAR(64)) AS org_name, " +
+                        "CAST(? AS BIGINT) AS block_num, CAST(? AS TIMESTAMP WITH TIME ZONE) AS save_time) s " +
+                        "ON t.org_name = s.org_name " +
+                        "WHEN MATCHED AND t.block_num < s.block_num THEN UPDATE SET block_num = s.block_num, save_time = s.save_time " +
+                        "WHEN NOT MATCHED THEN INSERT (org_name, block_num, save_time) VALUES (s.org_name, s.block_num, s.save_time)",
+                ledgerKey,
+                latest.blockNum(),
+                latest.saveTime()
+        );
+
+        // 内存登记只在事务提交后推进，回滚的批次不会让读到的 latest 超前于库
+        List<BlockRecord> committed = List.copyOf(blocks);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    latestRegistry.committed(ledgerKey, committed, JdbcBlockStorage.this::loadLatestBlockNum);
+                }
+            });
+        } else {
+            latestRegistry.committed(ledgerKey, committed, this::loadLatestBlockNum);
+        }
+    }
+
+    @Override
+    public List<BlockRecord> findBlocks(String ledgerKey, long fromBlock, long toBlock) {
+        return jdbcTemplate.query(
+                "SELECT block_num, block_hash, data_hash, prev_hash, tx_count, save_time " +
+                        "FROM blocks WHERE org_name = ? AND block_num >= ? AND block_num <= ? ORDER BY block_num",
+                (rs, rowNum) -> new BlockRecord(
+                        rs.getLong("block_num"),
+                        rs.getString("block_hash"),
+                        rs.getString("data_hash"),
+                        rs.getString("prev_hash"),
+                        rs.getInt("tx_count"),
+                        readOffsetDateTimeUtc(rs.getObject("save_time"))
+                ),
+                ledgerKey,
+                fromBlock,
+                toBlock
         );
     }
 
     @Override
-    public BlockQueryResultDto queryBlocks(String orgName, int pageSize, int pageNum) {
+    public BlockQueryResultDto queryBlocks(String ledgerKey, int pageSize, int pageNum) {
         int normalizedPageSize = pageSize > 0 ? pageSize : 10;
         int normalizedPageNum = pageNum > 0 ? pageNum : 1;
 
-        long latestBlockNum = getLatestBlockNum(orgName)
+        long latestBlockNum = getLatestBlockNum(ledgerKey)
                 .orElseThrow(() -> new BlockStorageException("组织数据不存在"));
 
         long totalLong = latestBlockNum + 1;
@@ -91,7 +155,7 @@ public class JdbcBlockStorage implements BlockStorage {
                         rs.getInt("tx_count"),
                         readOffsetDateTimeUtc(rs.getObject("save_time"))
                 ),
-                orgName,
+                ledgerKey,
                 startIdx,
                 endIdx
         );
@@ -0,0 +1,91 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockTransactionRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class JdbcBlockTransactionStore implements BlockTransactionStore {
+    private static final RowMapper<BlockTransactionRecord> ROW_MAPPER = (rs, rowNum) -> new BlockTransactionRecord(
+            rs.getString("tx_id"),
+            rs.getLong("block_num"),
+            rs.getInt("tx_index"),
+            rs.getString("chaincode_name"),
+            rs.getString("function_name"),
+            rs.getString("validation_code"),
+            readOffsetDateTimeUtc(rs.getObject("tx_time")),
+            List.of()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcBlockTransactionStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void saveTransactions(String ledgerKey, List<BlockTransactionRecord> transactions) {
+        if (transactions == null || transactions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "MERGE INTO block_transactions (org_name, block_num, tx_index, tx_id, chaincode_name, function_name, validation_code, tx_time) " +
+                        "KEY (org_name, block_num, tx_index) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                transactions,
+                transactions.size(),
+                (ps, tx) -> {
+                    ps.setString(1, ledgerKey);
+                    ps.setLong(2, tx.blockNum());
+                    ps.setInt(3, tx.txIndex());
+                    ps.setString(4, tx.txId());
+                    ps.setString(5, tx.chaincodeName());
+                    ps.setString(6, tx.functionName());
+                    ps.setString(7, tx.validationCode());
+                    ps.setObject(8, tx.txTime());
+                }
+        );
+    }
+
+    @Override
+    public Optional<BlockTransactionRecord> findByTxId(String ledgerKey, String txId) {
+        List<BlockTransactionRecord> rows = jdbcTemplate.query(
+                "SELECT block_num, tx_index, tx_id, chaincode_name, function_name, validation_code, tx_time " +
+                        "FROM block_transactions WHERE org_name = ? AND tx_id = ? " +
+                        "ORDER BY CASE WHEN validation_code = 'VALID' THEN 0 ELSE 1 END, block_num, tx_index LIMIT 1",
+                ROW_MAPPER,
+                ledgerKey,
+                txId
+        );
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public List<BlockTransactionRecord> findByBlock(String ledgerKey, long blockNum) {
+        return jdbcTemplate.query(
+                "SELECT block_num, tx_index, tx_id, chaincode_name, function_name, validation_code, tx_time " +
+                        "FROM block_transactions WHERE org_name = ? AND block_num = ? ORDER BY tx_index",
+                ROW_MAPPER,
+                ledgerKey,
+                blockNum
+        );
+    }
+
+    private static OffsetDateTime readOffsetDateTimeUtc(Object raw) {
+        if (raw instanceof OffsetDateTime odt) {
+            return odt.withOffsetSameInstant(ZoneOffset.UTC);
+        }
+        if (raw instanceof java.sql.Timestamp ts) {
+            return ts.toInstant().atOffset(ZoneOffset.UTC);
+        }
+        if (raw instanceof java.time.LocalDateTime ldt) {
+            return ldt.atOffset(ZoneOffset.UTC);
+        }
+        return OffsetDateTime.now(ZoneOffset.UTC);
+    }
+}
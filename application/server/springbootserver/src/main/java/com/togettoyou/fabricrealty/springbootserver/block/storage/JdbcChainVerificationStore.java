@@ -0,0 +1,95 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.ChainCheckpoint;
+import com.togettoyou.fabricrealty.springbootserver.block.model.ChainIssue;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class JdbcChainVerificationStore implements ChainVerificationStore {
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcChainVerificationStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<ChainCheckpoint> findCheckpoint(String ledgerKey) {
+        List<ChainCheckpoint> rows = jdbcTemplate.query(
+                "SELECT verified_through, block_hash FROM chain_checkpoints WHERE org_name = ?",
+                (rs, rowNum) -> new ChainCheckpoint(rs.getLong("verified_through"), rs.getString("block_hash")),
+                ledgerKey
+        );
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public void saveCheckpoint(String ledgerKey, ChainCheckpoint checkpoint) {
+        jdbcTemplate.update(
+                "MERGE INTO chain_checkpoints (org_name, verified_through, block_hash, update_time) KEY (org_name) VALUES (?, ?, ?, ?)",
+                ledgerKey,
+                checkpoint.blockNum(),
+                checkpoint.blockHash(),
+                OffsetDateTime.now(ZoneOffset.UTC)
+        );
+    }
+
+    @Override
+    @Transactional
+    public void replaceIssues(String ledgerKey, long fromBlock, long toBlock, List<ChainIssue> issues) {
+        jdbcTemplate.update(
+                "DELETE FROM chain_issues WHERE org_name = ? AND block_num BETWEEN ? AND ?",
+                ledgerKey,
+                fromBlock,
+                toBlock
+        );
+        if (issues == null || issues.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "MERGE INTO chain_issues (org_name, block_num, issue_type, detail, detect_time) " +
+                        "KEY (org_name, block_num, issue_type) VALUES (?, ?, ?, ?, ?)",
+                issues,
+                issues.size(),
+                (ps, issue) -> {
+                    ps.setString(1, ledgerKey);
+                    ps.setLong(2, issue.blockNum());
+                    ps.setString(3, issue.type());
+                    ps.setString(4, issue.detail());
+                    ps.setObject(5, issue.detectTime());
+                }
+        );
+    }
+
+    @Override
+    public List<ChainIssue> findRecentIssues(String ledgerKey, int limit) {
+        return jdbcTemplate.query(
+                "SELECT block_num, issue_type, detail, detect_time FROM chain_issues WHERE org_name = ? " +
+                        "ORDER BY block_num DESC LIMIT ?",
+                (rs, rowNum) -> new ChainIssue(
+                        rs.getLong("block_num"),
+                        rs.getString("issue_type"),
+                        rs.getString("detail"),
+                        rs.getObject("detect_time", OffsetDateTime.class)
+                ),
+                ledgerKey,
+                limit
+        );
+    }
+
+    @Override
+    public long countIssues(String ledgerKey) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM chain_issues WHERE org_name = ?",
+                Long.class,
+                ledgerKey
+        );
+        return count == null ? 0 : count;
+    }
+}
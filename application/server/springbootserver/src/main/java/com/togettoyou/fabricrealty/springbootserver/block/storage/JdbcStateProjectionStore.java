@@ -0,0 +1,125 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.StateProjection;
+import com.togettoyou.fabricrealty.springbootserver.block.model.StateRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class JdbcStateProjectionStore implements StateProjectionStore {
+    private static final RowMapper<StateRecord> ROW_MAPPER = (rs, rowNum) -> new StateRecord(
+            rs.getString("namespace"),
+            rs.getString("composite_key"),
+            rs.getString("object_type"),
+            rs.getString("status"),
+            rs.getString("object_id"),
+            rs.getBytes("state_value"),
+            rs.getBoolean("deleted"),
+            rs.getLong("block_num"),
+            rs.getInt("tx_index")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcStateProjectionStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<StateProjection> findProjection(String ledgerKey) {
+        List<StateProjection> rows = jdbcTemplate.query(
+                "SELECT complete, high_water_block FROM state_projections WHERE org_name = ?",
+                (rs, rowNum) -> new StateProjection(rs.getBoolean("complete"), rs.getLong("high_water_block")),
+                ledgerKey
+        );
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public void createProjection(String ledgerKey, boolean complete) {
+        jdbcTemplate.update(
+                "MERGE INTO state_projections (org_name, complete, high_water_block, update_time) KEY (org_name) VALUES (?, ?, ?, ?)",
+                ledgerKey,
+                complete,
+                -1L,
+                OffsetDateTime.now(ZoneOffset.UTC)
+        );
+    }
+
+    @Override
+    @Transactional
+    public void applyRecords(String ledgerKey, List<StateRecord> records, long highWaterBlock) {
+        if (!records.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "MERGE INTO state_records t USING (SELECT CAST(? AS VARCHAR(64)) AS org_name, " +
+                            "CAST(? AS VARCHAR(128)) AS namespace, CAST(? AS VARCHAR(512)) AS composite_key, " +
+                            "CAST(? AS VARCHAR(16)) AS object_type, CAST(? AS VARCHAR(64)) AS status, " +
+                            "CAST(? AS VARCHAR(256)) AS object_id, CAST(? AS VARBINARY) AS state_value, " +
+                            "CAST(? AS BOOLEAN) AS deleted, CAST(? AS BIGINT) AS block_num, CAST(? AS INT) AS tx_index) s " +
+                            "ON t.org_name = s.org_name AND t.namespace = s.namespace AND t.composite_key = s.composite_key " +
+                            "WHEN MATCHED AND (t.block_num < s.block_num OR (t.block_num = s.block_num AND t.tx_index < s.tx_index)) " +
+                            "THEN UPDATE SET state_value = s.state_value, deleted = s.deleted, block_num = s.block_num, tx_index = s.tx_index " +
+                            "WHEN NOT MATCHED THEN INSERT (org_name, namespace, composite_key, object_type, status, object_id, " +
+                            "state_value, deleted, block_num, tx_index) VALUES (s.org_name, s.namespace, s.composite_key, " +
+                            "s.object_type, s.status, s.object_id, s.state_value, s.deleted, s.block_num, s.tx_index)",
+                    records,
+                    records.size(),
+                    (ps, record) -> {
+                        ps.setString(1, ledgerKey);
+                        ps.setString(2, record.namespace());
+                        ps.setString(3, record.compositeKey());
+                        ps.setString(4, record.objectType());
+                        ps.setString(5, record.status());
+                        ps.setString(6, record.objectId());
+                        ps.setBytes(7, record.value());
+                        ps.setBoolean(8, record.deleted());
+                        ps.setLong(9, record.blockNum());
+                        ps.setInt(10, record.txIndex());
+                    }
+            );
+        }
+        jdbcTemplate.update(
+                "UPDATE state_projections SET high_water_block = GREATEST(high_water_block, ?), update_time = ? WHERE org_name = ?",
+                highWaterBlock,
+                OffsetDateTime.now(ZoneOffset.UTC),
+                ledgerKey
+        );
+    }
+
+    @Override
+    public Optional<byte[]> findValue(String ledgerKey, String namespace, String objectType, String objectId) {
+        List<byte[]> rows = jdbcTemplate.query(
+                "SELECT state_value FROM state_records " +
+                        "WHERE org_name = ? AND namespace = ? AND object_type = ? AND object_id = ? AND deleted = FALSE " +
+                        "ORDER BY block_num DESC, tx_index DESC LIMIT 1",
+                (rs, rowNum) -> rs.getBytes("state_value"),
+                ledgerKey,
+                namespace,
+                objectType,
+                objectId
+        );
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public List<StateRecord> findRange(String ledgerKey, String namespace, String startKey, String endKey, int limit) {
+        return jdbcTemplate.query(
+                "SELECT namespace, composite_key, object_type, status, object_id, state_value, deleted, block_num, tx_index " +
+                        "FROM state_records WHERE org_name = ? AND namespace = ? AND composite_key >= ? AND composite_key < ? " +
+                        "AND deleted = FALSE ORDER BY composite_key LIMIT ?",
+                ROW_MAPPER,
+                ledgerKey,
+                namespace,
+                startKey,
+                endKey,
+                limit
+        );
+    }
+}
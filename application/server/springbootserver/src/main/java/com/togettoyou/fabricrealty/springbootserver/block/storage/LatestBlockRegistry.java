@@ -0,0 +1,66 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
+
+/**
+ * 各账本最新区块号的内存登记：每个账本只在第一次访问时从存储加载一次，之后由 BlockStorage 在提交后写穿更新。
+ * <p>
+ * 只前进不后退，与 latest_blocks 的语义一致；-1 表示账本为空。
+ */
+@Component
+public class LatestBlockRegistry {
+    private static final Logger log = LoggerFactory.getLogger(LatestBlockRegistry.class);
+
+    private final Map<String, Long> latest = new ConcurrentHashMap<>();
+    private final List<BlockCommitListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void subscribe(BlockCommitListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param loader 首次访问时从存储读取最新区块号，账本为空返回 -1
+     */
+    public OptionalLong latest(String ledgerKey, ToLongFunction<String> loader) {
+        long value = latest.computeIfAbsent(ledgerKey, loader::applyAsLong);
+        return value < 0 ? OptionalLong.empty() : OptionalLong.of(value);
+    }
+
+    /**
+     * 批量导入历史区块后调用：只推进最新区块号，不通知订阅者。
+     */
+    public void imported(String ledgerKey, long blockNum, ToLongFunction<String> loader) {
+        latest.compute(ledgerKey, (key, value) -> Math.max(value != null ? value : loader.applyAsLong(key), blockNum));
+    }
+
+    /**
+     * 提交成功后调用：推进最新区块号并通知订阅者。
+     */
+    public void committed(String ledgerKey, List<BlockRecord> blocks, ToLongFunction<String> loader) {
+        long batchMax = -1;
+        for (BlockRecord block : blocks) {
+            batchMax = Math.max(batchMax, block.blockNum());
+        }
+        long max = batchMax;
+        // 未加载过的账本先从存储读出，避免回填低段提交时把更高的已有值覆盖掉
+        long current = latest.compute(ledgerKey, (key, value) -> Math.max(value != null ? value : loader.applyAsLong(key), max));
+        for (BlockCommitListener listener : listeners) {
+            try {
+                listener.onBlocksCommitted(ledgerKey, current, blocks);
+            } catch (Exception e) {
+                log.warn("Block commit listener failed: ledger={}, listener={}, error={}",
+                        ledgerKey, listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+}
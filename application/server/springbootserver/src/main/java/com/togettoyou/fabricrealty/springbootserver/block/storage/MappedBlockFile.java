@@ -0,0 +1,267 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * 单个账本的定长槽位文件：128 字节文件头 + 每个区块号一个 128 字节槽位，区块 n 位于 128 + n * 128。
+ * <p>
+ * 槽位：blockNum+1(long) | blockHash(32) | dataHash(32) | prevHash(32) | txCount(int) | 三个哈希的实际长度(3 byte) | 保留(1)
+ * | saveTime 秒(long) | 纳秒(int) | CRC32C(int，覆盖前 124 字节)。blockNum+1 为 0 的槽位为空。
+ * <p>
+ * 文件头：magic(int) | version(int) | slotSize(int) | 保留(int) | latest(long，-1 表示空)。
+ * 写入顺序为槽位 → 刷盘 → 推进文件头 latest → 刷盘；启动时从文件头的 latest 之后扫描尾部，
+ * 校验和正确的槽位补记进 latest，写了一半（校验和不符）的槽位清零，因此崩溃后不会读到半条记录。
+ */
+final class MappedBlockFile implements Closeable {
+    static final int HASH_BYTES = 32;
+
+    private static final int MAGIC = 0x46524253;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 128;
+    private static final int SLOT_BYTES = 128;
+    private static final int REGION_SLOTS = 1 << 16;
+    private static final long REGION_BYTES = (long) REGION_SLOTS * SLOT_BYTES;
+    private static final int CHECKSUM_OFFSET = SLOT_BYTES - 4;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private static final ThreadLocal<byte[]> SLOT_BUFFER = ThreadLocal.withInitial(() -> new byte[SLOT_BYTES]);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final Map<Long, MappedByteBuffer> regions = new ConcurrentHashMap<>();
+    private volatile long latest;
+
+    MappedBlockFile(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = channel.size() < HEADER_BYTES;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        if (created) {
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, SLOT_BYTES);
+            header.putLong(16, -1L);
+            header.force();
+        } else if (header.getInt(0) != MAGIC || header.getInt(8) != SLOT_BYTES) {
+            throw new IOException("不是有效的区块槽位文件: " + file);
+        }
+        this.latest = header.getLong(16);
+        recoverTail();
+    }
+
+    long latest() {
+        return latest;
+    }
+
+    synchronized void write(List<BlockRecord> blocks) throws IOException {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        byte[] slot = SLOT_BUFFER.get();
+        Set<MappedByteBuffer> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        long max = latest;
+        for (BlockRecord block : blocks) {
+            encode(block, slot);
+            MappedByteBuffer region = region(block.blockNum(), true);
+            region.put(slotPosition(block.blockNum()), slot);
+            touched.add(region);
+            max = Math.max(max, block.blockNum());
+        }
+        for (MappedByteBuffer region : touched) {
+            region.force();
+        }
+        if (max > latest) {
+            header.putLong(16, max);
+            header.force();
+            latest = max;
+        }
+    }
+
+    /**
+     * 按区块号升序返回 [fromBlock, toBlock] 内的有效槽位；空槽位和校验失败的槽位跳过。
+     */
+    List<BlockRecord> read(long fromBlock, long toBlock) throws IOException {
+        long from = Math.max(0, fromBlock);
+        long to = Math.min(toBlock, latest);
+        List<BlockRecord> result = new ArrayList<>((int) Math.max(0, Math.min(to - from + 1, 10000)));
+        byte[] slot = SLOT_BUFFER.get();
+        for (long blockNum = from; blockNum <= to; blockNum++) {
+            MappedByteBuffer region = region(blockNum, false);
+            if (region == null) {
+                break;
+            }
+            region.get(slotPosition(blockNum), slot);
+            BlockRecord record = decode(blockNum, slot);
+            if (record != null) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (MappedByteBuffer region : regions.values()) {
+            region.force();
+        }
+        header.force();
+        channel.close();
+    }
+
+    private void recoverTail() throws IOException {
+        long slots = (channel.size() - HEADER_BYTES) / SLOT_BYTES;
+        byte[] slot = SLOT_BUFFER.get();
+        long recovered = latest;
+        for (long blockNum = latest + 1; blockNum < slots; blockNum++) {
+            MappedByteBuffer region = region(blockNum, false);
+            if (region == null) {
+                break;
+            }
+            int position = slotPosition(blockNum);
+            region.get(position, slot);
+            if (isEmpty(slot)) {
+                continue;
+            }
+            if (decode(blockNum, slot) != null) {
+                recovered = blockNum;
+            } else {
+                region.put(position, new byte[SLOT_BYTES]);
+                region.force();
+            }
+        }
+        if (recovered > latest) {
+            header.putLong(16, recovered);
+            header.force();
+            latest = recovered;
+        }
+    }
+
+    private MappedByteBuffer region(long blockNum, boolean create) throws IOException {
+        long regionNo = blockNum / REGION_SLOTS;
+        MappedByteBuffer region = regions.get(regionNo);
+        if (region != null) {
+            return region;
+        }
+        long regionStart = HEADER_BYTES + regionNo * REGION_BYTES;
+        if (!create && channel.size() < regionStart + REGION_BYTES) {
+            return null;
+        }
+        synchronized (regions) {
+            region = regions.get(regionNo);
+            if (region == null) {
+                region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, REGION_BYTES);
+                regions.put(regionNo, region);
+            }
+            return region;
+        }
+    }
+
+    private static int slotPosition(long blockNum) {
+        return (int) (blockNum % REGION_SLOTS) * SLOT_BYTES;
+    }
+
+    private static void encode(BlockRecord block, byte[] slot) {
+        Arrays.fill(slot, (byte) 0);
+        putLong(slot, 0, block.blockNum() + 1);
+        slot[108] = (byte) putHash(slot, 8, block.blockHash());
+        slot[109] = (byte) putHash(slot, 40, block.dataHash());
+        slot[110] = (byte) putHash(slot, 72, block.prevHash());
+        putInt(slot, 104, block.txCount());
+        Instant saveTime = block.saveTime().toInstant();
+        putLong(slot, 112, saveTime.getEpochSecond());
+        putInt(slot, 120, saveTime.getNano());
+        putInt(slot, CHECKSUM_OFFSET, checksum(slot));
+    }
+
+    private static BlockRecord decode(long blockNum, byte[] slot) {
+        if (getLong(slot, 0) != blockNum + 1 || getInt(slot, CHECKSUM_OFFSET) != checksum(slot)) {
+            return null;
+        }
+        OffsetDateTime saveTime = Instant.ofEpochSecond(getLong(slot, 112), getInt(slot, 120)).atOffset(ZoneOffset.UTC);
+        return new BlockRecord(
+                blockNum,
+                HEX.formatHex(slot, 8, 8 + (slot[108] & 0xFF)),
+                HEX.formatHex(slot, 40, 40 + (slot[109] & 0xFF)),
+                HEX.formatHex(slot, 72, 72 + (slot[110] & 0xFF)),
+                getInt(slot, 104),
+                saveTime
+        );
+    }
+
+    private static int putHash(byte[] slot, int offset, String hex) {
+        int length = hex == null ? 0 : hex.length() / 2;
+        if (length > HASH_BYTES) {
+            throw new BlockStorageException("哈希长度超过 " + HASH_BYTES + " 字节: " + hex);
+        }
+        for (int i = 0; i < length; i++) {
+            slot[offset + i] = (byte) Integer.parseInt(hex, i * 2, i * 2 + 2, 16);
+        }
+        return length;
+    }
+
+    private static boolean isEmpty(byte[] slot) {
+        for (byte b : slot) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int checksum(byte[] slot) {
+        CRC32C crc = new CRC32C();
+        crc.update(slot, 0, CHECKSUM_OFFSET);
+        return (int) crc.getValue();
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        for (int i = 3; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static int getInt(byte[] bytes, int offset) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,168 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockDataDto;
+import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockQueryResultDto;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * app.blockStorage=mapped 时使用的区块存储：每个账本一个内存映射的定长槽位文件（见 {@link MappedBlockFile}），
+ * 位于 app.dataDir/blocks/mapped/{ledgerKey}.slots。分页与范围查询直接按区块号计算偏移，不经过 SQL。
+ */
+@Repository
+@ConditionalOnProperty(prefix = "app", name = "blockStorage", havingValue = "mapped")
+public class MappedBlockStorage implements BlockStorage {
+    private static final Logger log = LoggerFactory.getLogger(MappedBlockStorage.class);
+
+    private final Path root;
+    private final LatestBlockRegistry latestRegistry;
+    private final Map<String, MappedBlockFile> files = new ConcurrentHashMap<>();
+
+    public MappedBlockStorage(AppProperties appProperties, LatestBlockRegistry latestRegistry) {
+        this.root = Paths.get(appProperties.dataDir(), "blocks", "mapped");
+        this.latestRegistry = latestRegistry;
+    }
+
+    @Override
+    public OptionalLong getLatestBlockNum(String ledgerKey) {
+        return latestRegistry.latest(ledgerKey, key -> file(key).latest());
+    }
+
+    @Override
+    public void saveBlock(String ledgerKey, BlockRecord block) {
+        saveBlocks(ledgerKey, List.of(block));
+    }
+
+    @Override
+    public void saveBlocks(String ledgerKey, List<BlockRecord> blocks) {
+        if (blocks == null || blocks.isEmpty()) {
+            return;
+        }
+        List<BlockRecord> committed = List.copyOf(blocks);
+        // 槽位文件不能随事务回滚：在采集事务内调用时等交易索引、投影提交后再写，写失败从 afterCommit 抛出，整批重放
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write(ledgerKey, committed);
+                }
+            });
+        } else {
+            write(ledgerKey, committed);
+        }
+    }
+
+    private void write(String ledgerKey, List<BlockRecord> blocks) {
+        try {
+            file(ledgerKey).write(blocks);
+        } catch (IOException e) {
+            throw new BlockStorageException("区块写入失败: " + e.getMessage(), e);
+        }
+        latestRegistry.committed(ledgerKey, blocks, key -> file(key).latest());
+    }
+
+    /**
+     * 从 H2 导入历史区块：直接写槽位文件，不参与事务，也不通知区块提交订阅者（页缓存、推送）。
+     */
+    void importBlocks(String ledgerKey, List<BlockRecord> blocks) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        try {
+            file(ledgerKey).write(blocks);
+        } catch (IOException e) {
+            throw new BlockStorageException("区块写入失败: " + e.getMessage(), e);
+        }
+        latestRegistry.imported(ledgerKey, blocks.get(blocks.size() - 1).blockNum(), key -> file(key).latest());
+    }
+
+    @Override
+    public List<BlockRecord> findBlocks(String ledgerKey, long fromBlock, long toBlock) {
+        try {
+            return file(ledgerKey).read(fromBlock, toBlock);
+        } catch (IOException e) {
+            throw new BlockStorageException("区块读取失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public BlockQueryResultDto queryBlocks(String ledgerKey, int pageSize, int pageNum) {
+        int normalizedPageSize = pageSize > 0 ? pageSize : 10;
+        int normalizedPageNum = pageNum > 0 ? pageNum : 1;
+
+        long latestBlockNum = getLatestBlockNum(ledgerKey)
+                .orElseThrow(() -> new BlockStorageException("组织数据不存在"));
+
+        long totalLong = latestBlockNum + 1;
+        int total = totalLong > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) totalLong;
+
+        long startIdx = totalLong - (long) normalizedPageNum * normalizedPageSize;
+        long endIdx = startIdx + normalizedPageSize;
+        if (startIdx < 0) {
+            startIdx = 0;
+        }
+        if (endIdx > totalLong) {
+            endIdx = totalLong;
+        }
+
+        boolean hasMore = startIdx > 0;
+
+        List<BlockRecord> records = endIdx > startIdx ? findBlocks(ledgerKey, startIdx, endIdx - 1) : List.of();
+        List<BlockDataDto> blocks = new ArrayList<>(records.size());
+        for (int i = records.size() - 1; i >= 0; i--) {
+            BlockRecord record = records.get(i);
+            blocks.add(new BlockDataDto(
+                    record.blockNum(),
+                    record.blockHash(),
+                    record.dataHash(),
+                    record.prevHash(),
+                    record.txCount(),
+                    record.saveTime()
+            ));
+        }
+        return new BlockQueryResultDto(blocks, total, normalizedPageSize, normalizedPageNum, hasMore);
+    }
+
+    private MappedBlockFile file(String ledgerKey) {
+        try {
+            return files.computeIfAbsent(ledgerKey, key -> {
+                try {
+                    return new MappedBlockFile(root.resolve(key + ".slots"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw new BlockStorageException("打开区块文件失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Map.Entry<String, MappedBlockFile> entry : files.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (IOException e) {
+                log.warn("Close block file failed: ledger={}, error={}", entry.getKey(), e.getMessage());
+            }
+        }
+        files.clear();
+    }
+}
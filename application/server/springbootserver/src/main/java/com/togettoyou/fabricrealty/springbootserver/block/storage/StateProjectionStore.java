@@ -0,0 +1,25 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.StateProjection;
+import com.togettoyou.fabricrealty.springbootserver.block.model.StateRecord;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface StateProjectionStore {
+    Optional<StateProjection> findProjection(String ledgerKey);
+
+    void createProjection(String ledgerKey, boolean complete);
+
+    /**
+     * 按 (blockNum, txIndex) 版本合并写入：只有更新的写入才覆盖已有状态，因此回填分段乱序、重复应用都是安全的。
+     */
+    void applyRecords(String ledgerKey, List<StateRecord> records, long highWaterBlock);
+
+    Optional<byte[]> findValue(String ledgerKey, String namespace, String objectType, String objectId);
+
+    /**
+     * 按复合键升序返回 [startKey, endKey) 内未删除的状态，最多 limit 条。
+     */
+    List<StateRecord> findRange(String ledgerKey, String namespace, String startKey, String endKey, int limit);
+}
@@ -0,0 +1,74 @@
+package com.togettoyou.fabricrealty.springbootserver.block.verify;
+
+import com.togettoyou.fabricrealty.springbootserver.block.listener.BlockHashUtils;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.ChainIssue;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * 单个区块的校验：按 (number, prev_hash, data_hash) 重算 block_hash，并核对 prev_hash 是否等于上一块的 block_hash。
+ */
+final class ChainLinkChecker {
+    static final String GAP = "GAP";
+    static final String HASH_MISMATCH = "HASH_MISMATCH";
+    static final String LINK_BROKEN = "LINK_BROKEN";
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private ChainLinkChecker() {
+    }
+
+    /**
+     * @param previous    上一块，未知（创世块或前面缺块）时为 null，此时只校验自身哈希
+     * @param hashMatches block_hash 是否与重算结果一致（见 {@link BlockHashUtils#matchBlockHeaderHashes}）
+     */
+    static void check(BlockRecord previous, BlockRecord block, boolean hashMatches, List<ChainIssue> issues) {
+        if (!hashMatches) {
+            issues.add(issue(block.blockNum(), HASH_MISMATCH, "存储值 " + block.blockHash() + "，重算值 " + recompute(block)));
+        }
+        if (previous != null && !block.prevHash().equals(previous.blockHash())) {
+            issues.add(issue(block.blockNum(), LINK_BROKEN,
+                    "prev_hash " + block.prevHash() + " 与区块 " + previous.blockNum() + " 的哈希 " + previous.blockHash() + " 不一致"));
+        }
+    }
+
+    /**
+     * 批量重算哈希；字段不是合法十六进制时整批逐个重算，非法的记为不一致。
+     */
+    static boolean[] matchHashes(List<BlockRecord> blocks) {
+        try {
+            return BlockHashUtils.matchBlockHeaderHashes(blocks);
+        } catch (IllegalArgumentException e) {
+            boolean[] result = new boolean[blocks.size()];
+            for (int i = 0; i < result.length; i++) {
+                BlockRecord block = blocks.get(i);
+                try {
+                    result[i] = BlockHashUtils.matchesBlockHeaderHash(block.blockNum(), block.prevHash(), block.dataHash(), block.blockHash());
+                } catch (IllegalArgumentException ignored) {
+                    result[i] = false;
+                }
+            }
+            return result;
+        }
+    }
+
+    private static String recompute(BlockRecord block) {
+        try {
+            return BlockHashUtils.sha256BlockHeaderHash(block.blockNum(), HEX.parseHex(block.prevHash()), HEX.parseHex(block.dataHash()));
+        } catch (IllegalArgumentException e) {
+            return "（哈希字段不是合法的十六进制）";
+        }
+    }
+
+    static ChainIssue gap(long fromBlock, long toBlock) {
+        return issue(fromBlock, GAP, "缺失区块 [" + fromBlock + ", " + toBlock + "]");
+    }
+
+    private static ChainIssue issue(long blockNum, String type, String detail) {
+        return new ChainIssue(blockNum, type, detail, OffsetDateTime.now(ZoneOffset.UTC));
+    }
+}
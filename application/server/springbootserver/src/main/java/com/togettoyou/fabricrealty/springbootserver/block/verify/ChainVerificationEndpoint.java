@@ -0,0 +1,47 @@
+package com.togettoyou.fabricrealty.springbootserver.block.verify;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockLedger;
+import com.togettoyou.fabricrealty.springbootserver.block.model.ChainVerificationStatus;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockLedgerResolver;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GET /actuator/chainverify 查看各账本校验状态；POST /actuator/chainverify/{ledgerKey} 触发全量校验。
+ */
+@Component
+@Endpoint(id = "chainverify")
+public class ChainVerificationEndpoint {
+    private final ChainVerifier verifier;
+    private final BlockLedgerResolver ledgerResolver;
+
+    public ChainVerificationEndpoint(ChainVerifier verifier, BlockLedgerResolver ledgerResolver) {
+        this.verifier = verifier;
+        this.ledgerResolver = ledgerResolver;
+    }
+
+    @ReadOperation
+    public Map<String, ChainVerificationStatus> ledgers() {
+        Map<String, ChainVerificationStatus> result = new LinkedHashMap<>();
+        for (BlockLedger ledger : ledgerResolver.ledgers()) {
+            result.put(ledger.ledgerKey(), verifier.status(ledger.ledgerKey()));
+        }
+        return result;
+    }
+
+    @ReadOperation
+    public ChainVerificationStatus ledger(@Selector String ledgerKey) {
+        return verifier.status(ledgerKey);
+    }
+
+    @WriteOperation
+    public ChainVerificationStatus verify(@Selector String ledgerKey) {
+        return verifier.startFullRun(ledgerKey);
+    }
+}
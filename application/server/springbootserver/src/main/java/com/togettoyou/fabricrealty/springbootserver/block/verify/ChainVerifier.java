@@ -0,0 +1,244 @@
+package com.togettoyou.fabricrealty.springbootserver.block.verify;
+
+import com.togettoyou.fabricrealty.springbootserver.block.listener.BlockIngestionSink;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.ChainCheckpoint;
+import com.togettoyou.fabricrealty.springbootserver.block.model.ChainIssue;
+import com.togettoyou.fabricrealty.springbootserver.block.model.ChainVerificationRun;
+import com.togettoyou.fabricrealty.springbootserver.block.model.ChainVerificationStatus;
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorage;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.ChainVerificationStore;
+import com.togettoyou.fabricrealty.springbootserver.common.TaskExecutors;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 区块哈希链校验。
+ * <p>
+ * 增量：作为最后一个 {@link BlockIngestionSink}，在批次提交后只把本批区块头交给单独的校验线程，不阻塞落库；
+ * 校验线程从断点（chain_checkpoints）开始连续推进，遇到尚未落库的区块号（回填未完成）就停下，等后续批次再补。
+ * <p>
+ * 全量：按 app.verifyChunkSize 把 [0, latest] 切块，app.verifyParallelism 个线程并发校验，报告缺块、哈希不符与断链。
+ */
+@Component
+@Order(1000)
+public class ChainVerifier implements BlockIngestionSink {
+    private static final Logger log = LoggerFactory.getLogger(ChainVerifier.class);
+    private static final int RECENT_ISSUES = 20;
+
+    private final BlockStorage blockStorage;
+    private final ChainVerificationStore verificationStore;
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService incrementalExecutor = TaskExecutors.newSingleThreadExecutor("chain-verifier");
+    private final ExecutorService fullExecutor = TaskExecutors.newPlatformExecutor("chain-verify-");
+
+    private final Map<String, ChainCheckpoint> checkpoints = new ConcurrentHashMap<>();
+    private final Map<String, ChainVerificationRun> runs = new ConcurrentHashMap<>();
+
+    public ChainVerifier(BlockStorage blockStorage, ChainVerificationStore verificationStore, AppProperties appProperties) {
+        this.blockStorage = blockStorage;
+        this.verificationStore = verificationStore;
+        this.chunkSize = appProperties.verifyChunkSize();
+        this.parallelism = appProperties.verifyParallelism();
+    }
+
+    @Override
+    public void afterCommit(String ledgerKey, List<IngestedBlock> blocks) {
+        List<BlockRecord> records = new ArrayList<>(blocks.size());
+        for (IngestedBlock block : blocks) {
+            records.add(block.record());
+        }
+        records.sort(Comparator.comparingLong(BlockRecord::blockNum));
+        incrementalExecutor.execute(() -> {
+            try {
+                advance(ledgerKey, records);
+            } catch (Exception e) {
+                log.warn("Incremental chain verification failed: ledger={}, error={}", ledgerKey, e.getMessage());
+            }
+        });
+    }
+
+    public ChainVerificationStatus status(String ledgerKey) {
+        long latest = blockStorage.getLatestBlockNum(ledgerKey).orElse(-1);
+        long verifiedThrough = checkpoint(ledgerKey).blockNum();
+        return new ChainVerificationStatus(
+                ledgerKey,
+                latest,
+                verifiedThrough,
+                verificationStore.countIssues(ledgerKey),
+                verificationStore.findRecentIssues(ledgerKey, RECENT_ISSUES),
+                runs.get(ledgerKey)
+        );
+    }
+
+    /**
+     * 启动一次全量校验；同一账本已有任务在跑时直接返回当前状态。
+     */
+    public ChainVerificationStatus startFullRun(String ledgerKey) {
+        long latest = blockStorage.getLatestBlockNum(ledgerKey).orElse(-1);
+        ChainVerificationRun started = new ChainVerificationRun(
+                "RUNNING", OffsetDateTime.now(ZoneOffset.UTC), null, latest, 0, 0, null);
+        ChainVerificationRun current = runs.compute(ledgerKey,
+                (key, run) -> run != null && "RUNNING".equals(run.state()) ? run : started);
+        if (current == started) {
+            fullExecutor.execute(() -> fullRun(ledgerKey, started));
+        }
+        return status(ledgerKey);
+    }
+
+    private void advance(String ledgerKey, List<BlockRecord> batch) {
+        ChainCheckpoint checkpoint = checkpoint(ledgerKey);
+        long next = checkpoint.blockNum() + 1;
+        BlockRecord previous = checkpoint.blockNum() < 0 ? null
+                : new BlockRecord(checkpoint.blockNum(), checkpoint.blockHash(), "", "", 0, null);
+        List<ChainIssue> issues = new ArrayList<>();
+
+        int index = 0;
+        while (index < batch.size() && batch.get(index).blockNum() < next) {
+            index++;
+        }
+        long batchFirst = index < batch.size() ? batch.get(index).blockNum() : Long.MAX_VALUE;
+
+        // 断点与本批之间的区块已在之前的批次落库，从存储补齐；遇到缺号说明回填还没写到，停在这里
+        boolean contiguous = true;
+        while (contiguous && next < batchFirst) {
+            long to = Math.min(batchFirst - 1, next + chunkSize - 1);
+            List<BlockRecord> stored = blockStorage.findBlocks(ledgerKey, next, to);
+            boolean[] matches = ChainLinkChecker.matchHashes(stored);
+            for (int i = 0; i < stored.size(); i++) {
+                BlockRecord block = stored.get(i);
+                if (block.blockNum() != next) {
+                    break;
+                }
+                ChainLinkChecker.check(previous, block, matches[i], issues);
+                previous = block;
+                next++;
+            }
+            contiguous = next > to;
+        }
+        if (contiguous && index < batch.size()) {
+            boolean[] matches = ChainLinkChecker.matchHashes(batch);
+            for (; index < batch.size() && batch.get(index).blockNum() == next; index++) {
+                BlockRecord block = batch.get(index);
+                ChainLinkChecker.check(previous, block, matches[index], issues);
+                previous = block;
+                next++;
+            }
+        }
+
+        if (previous != null && previous.blockNum() > checkpoint.blockNum()) {
+            ChainCheckpoint advanced = new ChainCheckpoint(previous.blockNum(), previous.blockHash());
+            verificationStore.replaceIssues(ledgerKey, checkpoint.blockNum() + 1, previous.blockNum(), issues);
+            verificationStore.saveCheckpoint(ledgerKey, advanced);
+            checkpoints.put(ledgerKey, advanced);
+            for (ChainIssue issue : issues) {
+                log.warn("Chain verification issue: ledger={}, block={}, type={}, detail={}",
+                        ledgerKey, issue.blockNum(), issue.type(), issue.detail());
+            }
+        }
+    }
+
+    private void fullRun(String ledgerKey, ChainVerificationRun started) {
+        long latest = started.toBlock();
+        Queue<Long> chunkStarts = new ConcurrentLinkedQueue<>();
+        for (long start = 0; start <= latest; start += chunkSize) {
+            chunkStarts.add(start);
+        }
+        AtomicLong checked = new AtomicLong();
+        List<ChainIssue> issues = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < Math.min(parallelism, chunkStarts.size()); i++) {
+                workers.add(fullExecutor.submit(() -> {
+                    Long start;
+                    while ((start = chunkStarts.poll()) != null) {
+                        checked.addAndGet(verifyChunk(ledgerKey, start, Math.min(latest, start + chunkSize - 1), issues));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            verificationStore.replaceIssues(ledgerKey, 0, latest, issues);
+            runs.put(ledgerKey, new ChainVerificationRun("COMPLETED", started.startTime(), OffsetDateTime.now(ZoneOffset.UTC),
+                    latest, checked.get(), issues.size(), null));
+            log.info("Full chain verification completed: ledger={}, toBlock={}, checked={}, issues={}",
+                    ledgerKey, latest, checked.get(), issues.size());
+        } catch (Exception e) {
+            for (Future<?> worker : workers) {
+                worker.cancel(true);
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            String error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            runs.put(ledgerKey, new ChainVerificationRun("FAILED", started.startTime(), OffsetDateTime.now(ZoneOffset.UTC),
+                    latest, checked.get(), issues.size(), error));
+            log.warn("Full chain verification failed: ledger={}, error={}", ledgerKey, error);
+        }
+    }
+
+    /**
+     * 读取 [start - 1, end]：多读的上一块用于核对块边界处的 prev_hash，块之间不需要协调。
+     */
+    private long verifyChunk(String ledgerKey, long start, long end, List<ChainIssue> issues) {
+        List<BlockRecord> stored = blockStorage.findBlocks(ledgerKey, Math.max(0, start - 1), end);
+        boolean[] matches = ChainLinkChecker.matchHashes(stored);
+        List<ChainIssue> found = new ArrayList<>();
+        BlockRecord previous = null;
+        long expected = start;
+        long checked = 0;
+        for (int i = 0; i < stored.size(); i++) {
+            BlockRecord block = stored.get(i);
+            if (block.blockNum() < start) {
+                previous = block;
+                continue;
+            }
+            if (block.blockNum() > expected) {
+                found.add(ChainLinkChecker.gap(expected, block.blockNum() - 1));
+                previous = null;
+            }
+            ChainLinkChecker.check(previous, block, matches[i], found);
+            previous = block;
+            expected = block.blockNum() + 1;
+            checked++;
+        }
+        if (expected <= end) {
+            found.add(ChainLinkChecker.gap(expected, end));
+        }
+        issues.addAll(found);
+        return checked;
+    }
+
+    private ChainCheckpoint checkpoint(String ledgerKey) {
+        return checkpoints.computeIfAbsent(ledgerKey,
+                key -> verificationStore.findCheckpoint(key).orElse(new ChainCheckpoint(-1, "")));
+    }
+
+    @PreDestroy
+    public void stop() {
+        incrementalExecutor.shutdownNow();
+        fullExecutor.shutdownNow();
+    }
+}
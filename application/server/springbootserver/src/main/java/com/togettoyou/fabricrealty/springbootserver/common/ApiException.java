@@ -15,5 +15,9 @@ public class ApiException extends RuntimeException {
     public static ApiException badRequest(String message) {
         return new ApiException(400, message);
     }
+
+    public static ApiException serviceUnavailable(String message) {
+        return new ApiException(503, message);
+    }
 }
 
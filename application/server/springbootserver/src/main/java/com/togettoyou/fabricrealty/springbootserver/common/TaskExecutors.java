@@ -0,0 +1,71 @@
+package com.togettoyou.fabricrealty.springbootserver.common;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 后台任务线程池工厂。
+ * <p>
+ * virtualThreads=true 时每个任务一个虚拟线程，否则为守护平台线程池。
+ */
+public final class TaskExecutors {
+    private TaskExecutors() {
+    }
+
+    public static ExecutorService newExecutor(String namePrefix, boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+        }
+        return newPlatformExecutor(namePrefix);
+    }
+
+    public static ExecutorService newPlatformExecutor(String namePrefix) {
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread t = new Thread(runnable);
+            t.setName(namePrefix + t.threadId());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 最多 maxThreads 个守护平台线程，不排队：线程全忙时 execute 抛 RejectedExecutionException，空闲 60s 的线程回收。
+     */
+    public static ExecutorService newBoundedExecutor(String namePrefix, int maxThreads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+            Thread t = new Thread(runnable);
+            t.setName(namePrefix + t.threadId());
+            t.setDaemon(true);
+            return t;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 单个守护平台线程，按提交顺序串行执行任务。
+     */
+    public static ExecutorService newSingleThreadExecutor(String threadName) {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread t = new Thread(runnable, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 单个守护平台线程的定时任务线程池。
+     */
+    public static ScheduledExecutorService newScheduledExecutor(String threadName) {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread t = new Thread(runnable, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -3,11 +3,127 @@ package com.togettoyou.fabricrealty.springbootserver.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "app")
-public record AppProperties(String dataDir, int blockRetrySeconds) {
+public record AppProperties(
+        String dataDir,
+        int blockRetrySeconds,
+        int blockBatchSize,
+        int blockFlushMillis,
+        int blockQueueCapacity,
+        boolean virtualThreads,
+        int backfillSegmentSize,
+        int backfillParallelism,
+        boolean readModelEnabled,
+        int readModelMaxStalenessSeconds,
+        int verifyChunkSize,
+        int verifyParallelism,
+        boolean blockArchiveEnabled,
+        int blockArchiveSegmentMb,
+        String blockStorage,
+        int blockPageCachePages,
+        int blockFragmentCacheSize,
+        int blockStreamBufferSize,
+        int blockStreamHeartbeatSeconds,
+        int submissionHistorySize,
+        String submitWebhookUrl,
+        boolean queryCacheEnabled,
+        int queryCacheSize,
+        int queryCacheTtlSeconds,
+        boolean hedgeEnabled,
+        int hedgePercentile,
+        int hedgeMinDelayMillis,
+        int hedgeMaxDelayMillis,
+        boolean fabricLimitEnabled,
+        int fabricLimitInitial,
+        int fabricLimitMin,
+        int fabricLimitMax,
+        String fabricWarmUpFunction,
+        int fabricCallThreads,
+        int fabricSubmitThreads
+) {
     public AppProperties {
         if (dataDir == null || dataDir.isBlank()) {
             dataDir = "./data";
         }
+        if (blockBatchSize <= 0) {
+            blockBatchSize = 500;
+        }
+        if (blockFlushMillis <= 0) {
+            blockFlushMillis = 200;
+        }
+        if (blockQueueCapacity <= 0) {
+            blockQueueCapacity = Math.max(blockBatchSize * 4, 1000);
+        }
+        if (backfillSegmentSize <= 0) {
+            backfillSegmentSize = 10000;
+        }
+        if (backfillParallelism <= 0) {
+            backfillParallelism = 4;
+        }
+        if (readModelMaxStalenessSeconds <= 0) {
+            readModelMaxStalenessSeconds = 5;
+        }
+        if (verifyChunkSize <= 0) {
+            verifyChunkSize = 10000;
+        }
+        if (verifyParallelism <= 0) {
+            verifyParallelism = Runtime.getRuntime().availableProcessors();
+        }
+        if (blockArchiveSegmentMb <= 0) {
+            blockArchiveSegmentMb = 256;
+        }
+        if (blockStorage == null || blockStorage.isBlank()) {
+            blockStorage = "jdbc";
+        }
+        if (blockPageCachePages <= 0) {
+            blockPageCachePages = 3;
+        }
+        if (blockFragmentCacheSize <= 0) {
+            blockFragmentCacheSize = 10000;
+        }
+        if (blockStreamBufferSize <= 0) {
+            blockStreamBufferSize = 1024;
+        }
+        if (blockStreamHeartbeatSeconds <= 0) {
+            blockStreamHeartbeatSeconds = 15;
+        }
+        if (submissionHistorySize <= 0) {
+            submissionHistorySize = 10000;
+        }
+        if (queryCacheSize <= 0) {
+            queryCacheSize = 10000;
+        }
+        if (queryCacheTtlSeconds <= 0) {
+            queryCacheTtlSeconds = 30;
+        }
+        if (hedgePercentile <= 0 || hedgePercentile >= 100) {
+            hedgePercentile = 95;
+        }
+        if (hedgeMinDelayMillis <= 0) {
+            hedgeMinDelayMillis = 10;
+        }
+        if (hedgeMaxDelayMillis <= 0) {
+            hedgeMaxDelayMillis = 1000;
+        }
+        if (hedgeMaxDelayMillis < hedgeMinDelayMillis) {
+            hedgeMaxDelayMillis = hedgeMinDelayMillis;
+        }
+        if (fabricLimitMin <= 0) {
+            fabricLimitMin = 4;
+        }
+        if (fabricLimitMax <= 0) {
+            fabricLimitMax = 500;
+        }
+        if (fabricLimitMax < fabricLimitMin) {
+            fabricLimitMax = fabricLimitMin;
+        }
+        if (fabricLimitInitial <= 0) {
+            fabricLimitInitial = 50;
+        }
+        if (fabricCallThreads <= 0) {
+            fabricCallThreads = 200;
+        }
+        if (fabricSubmitThreads <= 0) {
+            fabricSubmitThreads = 100;
+        }
     }
 }
-
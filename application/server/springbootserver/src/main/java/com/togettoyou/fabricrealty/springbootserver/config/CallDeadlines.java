@@ -0,0 +1,41 @@
+package com.togettoyou.fabricrealty.springbootserver.config;
+
+import java.time.Duration;
+
+/**
+ * 一组 Gateway 调用超时，未配置的阶段为 null，取 {@code fabric.deadlines.default} 或内置默认值。
+ *
+ * @param evaluate     查询
+ * @param endorse      背书
+ * @param submit       发往排序节点
+ * @param commitStatus 等待提交状态
+ */
+public record CallDeadlines(
+        Duration evaluate,
+        Duration endorse,
+        Duration submit,
+        Duration commitStatus
+) {
+    /**
+     * 内置默认值，对齐 Go 配置。
+     */
+    static final CallDeadlines BUILT_IN = new CallDeadlines(
+            Duration.ofSeconds(5),
+            Duration.ofSeconds(15),
+            Duration.ofSeconds(5),
+            Duration.ofMinutes(1)
+    );
+
+    CallDeadlines orElse(CallDeadlines fallback) {
+        return new CallDeadlines(
+                valid(evaluate) ? evaluate : fallback.evaluate(),
+                valid(endorse) ? endorse : fallback.endorse(),
+                valid(submit) ? submit : fallback.submit(),
+                valid(commitStatus) ? commitStatus : fallback.commitStatus()
+        );
+    }
+
+    static boolean valid(Duration deadline) {
+        return deadline != null && !deadline.isNegative() && !deadline.isZero();
+    }
+}
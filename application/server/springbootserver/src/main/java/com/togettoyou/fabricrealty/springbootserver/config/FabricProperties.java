@@ -2,13 +2,65 @@ package com.togettoyou.fabricrealty.springbootserver.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+/**
+ * @param channelName   默认通道（未显式指定通道的调用、区块查询使用）
+ * @param chaincodeName 默认链码
+ * @param deadlines     Gateway 调用超时：{@value #DEFAULT_DEADLINES} 条目为所有调用的默认值（缺省取内置 5s / 15s / 5s / 1m），
+ *                      其余按链码函数名覆盖该函数的 evaluate / endorse 超时
+ */
 @ConfigurationProperties(prefix = "fabric")
 public record FabricProperties(
         String channelName,
         String chaincodeName,
-        Map<String, OrganizationProperties> organizations
+        Map<String, OrganizationProperties> organizations,
+        Map<String, CallDeadlines> deadlines
 ) {
-}
+    public static final String DEFAULT_DEADLINES = "default";
+
+    /**
+     * @return 各阶段的默认超时，均不为 null
+     */
+    public CallDeadlines defaultDeadlines() {
+        CallDeadlines configured = deadlines == null ? null : deadlines.get(DEFAULT_DEADLINES);
+        return configured == null ? CallDeadlines.BUILT_IN : configured.orElse(CallDeadlines.BUILT_IN);
+    }
+
+    public Optional<Duration> evaluateDeadlineOf(String transactionName) {
+        return functionDeadlines(transactionName).map(CallDeadlines::evaluate).filter(CallDeadlines::valid);
+    }
 
+    public Optional<Duration> endorseDeadlineOf(String transactionName) {
+        return functionDeadlines(transactionName).map(CallDeadlines::endorse).filter(CallDeadlines::valid);
+    }
+
+    private Optional<CallDeadlines> functionDeadlines(String transactionName) {
+        if (deadlines == null || DEFAULT_DEADLINES.equals(transactionName)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(deadlines.get(transactionName));
+    }
+
+    /**
+     * @return 组织可访问的通道 -> 链码列表；组织未配置 channels 时为默认通道/链码
+     */
+    public Map<String, List<String>> channelsOf(String orgName) {
+        OrganizationProperties org = organizations == null ? null : organizations.get(orgName);
+        if (org == null) {
+            throw new IllegalArgumentException("未知组织: " + orgName);
+        }
+        Map<String, List<String>> channels = new LinkedHashMap<>();
+        if (org.channels() == null || org.channels().isEmpty()) {
+            channels.put(channelName, List.of(chaincodeName));
+            return channels;
+        }
+        org.channels().forEach((channel, chaincodes) ->
+                channels.put(channel, chaincodes == null || chaincodes.isEmpty() ? List.of(chaincodeName) : List.copyOf(chaincodes)));
+        return channels;
+    }
+}
@@ -0,0 +1,33 @@
+package com.togettoyou.fabricrealty.springbootserver.config;
+
+/**
+ * 组织到每个 Gateway peer 的 gRPC 连接参数。
+ *
+ * @param poolSize                每个 peer 用于 evaluate/submit 的连接数，调用按轮转分摊；区块事件流另用一条专用连接
+ * @param keepAliveTimeSeconds    空闲多久发送 keepalive ping，0 表示关闭；需不小于 peer 的 keepalive.minInterval（默认 60s），否则会被 peer 断开
+ * @param keepAliveTimeoutSeconds ping 无响应多久视为连接断开
+ * @param keepAliveWithoutCalls   没有进行中的调用时是否也发送 ping
+ * @param flowControlWindowKb     HTTP/2 初始流控窗口（KB），0 表示使用 gRPC 默认值；保留 BDP 自动调整
+ */
+public record GrpcConnectionProperties(
+        int poolSize,
+        int keepAliveTimeSeconds,
+        int keepAliveTimeoutSeconds,
+        boolean keepAliveWithoutCalls,
+        int flowControlWindowKb
+) {
+    public GrpcConnectionProperties {
+        if (poolSize <= 0) {
+            poolSize = 1;
+        }
+        if (keepAliveTimeSeconds < 0) {
+            keepAliveTimeSeconds = 0;
+        }
+        if (keepAliveTimeoutSeconds <= 0) {
+            keepAliveTimeoutSeconds = 20;
+        }
+        if (flowControlWindowKb < 0) {
+            flowControlWindowKb = 0;
+        }
+    }
+}
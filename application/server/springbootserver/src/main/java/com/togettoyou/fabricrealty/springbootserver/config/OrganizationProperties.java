@@ -1,12 +1,41 @@
 package com.togettoyou.fabricrealty.springbootserver.config;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param channels 该组织可访问的通道及通道内的链码（通道名 -> 链码名列表），缺省为 fabric.channelName / fabric.chaincodeName
+ * @param peers    多个 Gateway peer；配置后 peerEndpoint / gatewayPeer 不再使用
+ * @param grpc     到各 peer 的 gRPC 连接池与 keepalive / 流控参数，对该组织的所有 peer 生效
+ */
 public record OrganizationProperties(
         String mspId,
         String certPath,
         String keyPath,
         String tlsCertPath,
         String peerEndpoint,
-        String gatewayPeer
+        String gatewayPeer,
+        Map<String, List<String>> channels,
+        List<PeerProperties> peers,
+        GrpcConnectionProperties grpc
 ) {
-}
+    public GrpcConnectionProperties grpcSettings() {
+        return grpc == null ? new GrpcConnectionProperties(0, 0, 0, false, 0) : grpc;
+    }
 
+    /**
+     * @return 该组织的 Gateway peer 列表；未配置 peers 时为 peerEndpoint / gatewayPeer 组成的单个 peer
+     */
+    public List<PeerProperties> gatewayPeers() {
+        if (peers == null || peers.isEmpty()) {
+            return List.of(new PeerProperties(peerEndpoint, gatewayPeer, tlsCertPath));
+        }
+        List<PeerProperties> result = new ArrayList<>(peers.size());
+        for (PeerProperties peer : peers) {
+            String peerTlsCertPath = peer.tlsCertPath() == null || peer.tlsCertPath().isBlank() ? tlsCertPath : peer.tlsCertPath();
+            result.add(new PeerProperties(peer.endpoint(), peer.gatewayPeer(), peerTlsCertPath));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,15 @@
+package com.togettoyou.fabricrealty.springbootserver.config;
+
+/**
+ * 组织的一个 Gateway peer。
+ *
+ * @param endpoint    gRPC 地址（host:port）
+ * @param gatewayPeer TLS serverName/authority，需与 peer TLS 证书 SAN 匹配
+ * @param tlsCertPath TLS CA 证书，缺省使用组织的 tlsCertPath
+ */
+public record PeerProperties(
+        String endpoint,
+        String gatewayPeer,
+        String tlsCertPath
+) {
+}
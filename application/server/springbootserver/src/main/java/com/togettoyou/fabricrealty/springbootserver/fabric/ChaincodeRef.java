@@ -0,0 +1,10 @@
+package com.togettoyou.fabricrealty.springbootserver.fabric;
+
+/**
+ * 通道 + 链码，定位一个 Contract。
+ */
+public record ChaincodeRef(
+        String channelName,
+        String chaincodeName
+) {
+}
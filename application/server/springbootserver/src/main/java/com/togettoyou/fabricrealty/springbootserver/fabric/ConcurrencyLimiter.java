@@ -0,0 +1,67 @@
+package com.togettoyou.fabricrealty.springbootserver.fabric;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * AIMD 并发上限：调用正常完成且在途数达到上限一半以上时上限加 1/limit（约每轮加 1），
+ * peer 过载信号（超时、UNAVAILABLE、RESOURCE_EXHAUSTED）时乘以 0.9；在途数达到上限的请求直接拒绝，不排队。
+ */
+final class ConcurrencyLimiter {
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Counter rejected;
+
+    private double limit;
+    private int inflight;
+
+    ConcurrencyLimiter(String scope, String name, int initialLimit, int minLimit, int maxLimit, MeterRegistry meterRegistry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        Tags tags = Tags.of("scope", scope, "name", name);
+        this.rejected = meterRegistry.counter("fabric.limiter.rejected", tags);
+        Gauge.builder("fabric.limiter.limit", this, ConcurrencyLimiter::limit).tags(tags).register(meterRegistry);
+        Gauge.builder("fabric.limiter.inflight", this, ConcurrencyLimiter::inflight).tags(tags).register(meterRegistry);
+    }
+
+    synchronized boolean tryAcquire() {
+        if (inflight >= (int) limit) {
+            rejected.increment();
+            return false;
+        }
+        inflight++;
+        return true;
+    }
+
+    /**
+     * @param overloaded 本次调用是否收到 peer 过载信号
+     */
+    synchronized void release(boolean overloaded) {
+        if (overloaded) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else if (inflight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+        inflight--;
+    }
+
+    /**
+     * 调用被主动取消（对冲的另一次调用已先返回）：只归还名额，不调整上限。
+     */
+    synchronized void releaseCancelled() {
+        inflight--;
+    }
+
+    synchronized double limit() {
+        return limit;
+    }
+
+    synchronized double inflight() {
+        return inflight;
+    }
+}
@@ -0,0 +1,153 @@
+package com.togettoyou.fabricrealty.springbootserver.fabric;
+
+import io.grpc.Context;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 对冲查询：evaluate 超过该组织最近延迟的 p{percentile} 仍未返回时，再发一次相同查询，先返回的结果生效，另一次通过 gRPC Context 取消。
+ * <p>
+ * 第二次调用重新走 peer 选择，第一次仍在途使其在途数更高，因此多 peer 时会落到另一个 peer，单 peer 时落到连接池的下一条连接。
+ * 只用于只读的 evaluate；延迟窗口样本不足时按 {@code maxDelay} 对冲。
+ */
+final class EvaluateHedger {
+    private static final int WINDOW_SIZE = 1024;
+    private static final int MIN_SAMPLES = 50;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+    private final int percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private final Counter sent;
+    private final Counter won;
+
+    EvaluateHedger(
+            ExecutorService executor,
+            ScheduledExecutorService timer,
+            int percentile,
+            long minDelayMillis,
+            long maxDelayMillis,
+            MeterRegistry meterRegistry
+    ) {
+        this.executor = executor;
+        this.timer = timer;
+        this.percentile = percentile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.sent = meterRegistry.counter("fabric.evaluate.hedge", "result", "sent");
+        this.won = meterRegistry.counter("fabric.evaluate.hedge", "result", "won");
+    }
+
+    CompletableFuture<byte[]> evaluate(String orgName, Supplier<byte[]> call) {
+        LatencyWindow window = windows.computeIfAbsent(orgName, key -> new LatencyWindow());
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        Attempt primary = launch(call, window, result, running, false);
+        ScheduledFuture<?> hedgeTimer = timer.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            running.incrementAndGet();
+            sent.increment();
+            Attempt hedge = launch(call, window, result, running, true);
+            result.whenComplete((value, error) -> hedge.cancel());
+        }, window.hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+        result.whenComplete((value, error) -> {
+            hedgeTimer.cancel(false);
+            primary.cancel();
+        });
+        return result;
+    }
+
+    private Attempt launch(
+            Supplier<byte[]> call,
+            LatencyWindow window,
+            CompletableFuture<byte[]> result,
+            AtomicInteger running,
+            boolean hedged
+    ) {
+        Context.CancellableContext context = Context.current().withCancellation();
+        Attempt attempt = new Attempt(context);
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    byte[] value = context.call(call::get);
+                    window.record(System.nanoTime() - start);
+                    if (result.complete(value) && hedged) {
+                        won.increment();
+                    }
+                } catch (Exception e) {
+                    // 另一次调用仍在途时等它的结果；被取消的一方结果已确定，complete 不再生效
+                    if (running.decrementAndGet() == 0) {
+                        result.completeExceptionally(e);
+                    }
+                } finally {
+                    context.close();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            context.close();
+            if (running.decrementAndGet() == 0) {
+                result.completeExceptionally(e);
+            }
+        }
+        return attempt;
+    }
+
+    private record Attempt(Context.CancellableContext context) {
+        void cancel() {
+            context.cancel(null);
+        }
+    }
+
+    /**
+     * 最近 {@value #WINDOW_SIZE} 次成功 evaluate 的耗时；百分位每 {@value #RECOMPUTE_EVERY} 个样本重算一次，请求路径只读缓存值。
+     */
+    private final class LatencyWindow {
+        private final long[] samples = new long[WINDOW_SIZE];
+        private int filled;
+        private int position;
+        private int sinceRecompute;
+        private volatile long hedgeDelayNanos = maxDelayNanos;
+
+        long hedgeDelayNanos() {
+            return hedgeDelayNanos;
+        }
+
+        void record(long latencyNanos) {
+            long[] snapshot = null;
+            synchronized (this) {
+                samples[position] = latencyNanos;
+                position = (position + 1) % WINDOW_SIZE;
+                if (filled < WINDOW_SIZE) {
+                    filled++;
+                }
+                if (filled >= MIN_SAMPLES && ++sinceRecompute >= RECOMPUTE_EVERY) {
+                    sinceRecompute = 0;
+                    snapshot = Arrays.copyOf(samples, filled);
+                }
+            }
+            if (snapshot != null) {
+                Arrays.sort(snapshot);
+                long value = snapshot[Math.min(snapshot.length - 1, snapshot.length * percentile / 100)];
+                hedgeDelayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+            }
+        }
+    }
+}
@@ -1,8 +1,50 @@
 package com.togettoyou.fabricrealty.springbootserver.fabric;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface FabricClient {
+    /**
+     * 在默认通道/链码（fabric.channelName / fabric.chaincodeName）上执行查询。
+     */
     byte[] evaluate(String orgName, String transactionName, String... args);
 
+    byte[] evaluate(String orgName, ChaincodeRef chaincode, String transactionName, String... args);
+
+    /**
+     * 在默认通道/链码上提交交易。
+     */
     byte[] submit(String orgName, String transactionName, String... args);
-}
 
+    byte[] submit(String orgName, ChaincodeRef chaincode, String transactionName, String... args);
+
+    /**
+     * 在默认通道/链码上背书并发往排序节点后立即返回，不等待上链确认。
+     */
+    FabricSubmission beginSubmit(String orgName, String transactionName, String... args);
+
+    FabricSubmission beginSubmit(String orgName, ChaincodeRef chaincode, String transactionName, String... args);
+
+    /**
+     * {@link #beginSubmit} 的异步版本：背书和发往排序节点在 Fabric 提交线程池上完成，future 在交易发出后完成。
+     */
+    CompletableFuture<FabricSubmission> beginSubmitAsync(String orgName, String transactionName, String... args);
+
+    /**
+     * {@link #evaluate} 的异步版本：调用方线程立即返回，gRPC 调用在 Fabric 调用线程池上完成。
+     */
+    CompletableFuture<byte[]> evaluateAsync(String orgName, String transactionName, String... args);
+
+    CompletableFuture<byte[]> evaluateAsync(String orgName, ChaincodeRef chaincode, String transactionName, String... args);
+
+    /**
+     * {@link #submit} 的异步版本，future 在交易上链后以提交状态（含所在区块号）完成，校验未通过时异常完成。
+     */
+    CompletableFuture<FabricCommitStatus> submitAsync(String orgName, String transactionName, String... args);
+
+    CompletableFuture<FabricCommitStatus> submitAsync(String orgName, ChaincodeRef chaincode, String transactionName, String... args);
+
+    /**
+     * 本机写交易已在该通道上链：此前发起、仍在途的查询不再被之后的 {@link #evaluateAsync} 合并复用。
+     */
+    void localCommitted(String channelName);
+}
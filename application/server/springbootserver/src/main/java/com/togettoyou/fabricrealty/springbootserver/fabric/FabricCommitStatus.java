@@ -0,0 +1,13 @@
+package com.togettoyou.fabricrealty.springbootserver.fabric;
+
+/**
+ * 交易提交结果。
+ *
+ * @param validationCode 校验结果（TxValidationCode 名称），VALID 表示已生效
+ */
+public record FabricCommitStatus(
+        long blockNum,
+        String validationCode,
+        boolean successful
+) {
+}
@@ -1,15 +1,30 @@
 package com.togettoyou.fabricrealty.springbootserver.fabric;
 
+import com.togettoyou.fabricrealty.springbootserver.common.ApiException;
+import com.togettoyou.fabricrealty.springbootserver.common.TaskExecutors;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import com.togettoyou.fabricrealty.springbootserver.config.CallDeadlines;
 import com.togettoyou.fabricrealty.springbootserver.config.FabricProperties;
+import com.togettoyou.fabricrealty.springbootserver.config.GrpcConnectionProperties;
 import com.togettoyou.fabricrealty.springbootserver.config.OrganizationProperties;
+import com.togettoyou.fabricrealty.springbootserver.config.PeerProperties;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import io.grpc.Grpc;
+import io.grpc.CallOptions;
+import io.grpc.Context;
 import io.grpc.ManagedChannel;
 import io.grpc.TlsChannelCredentials;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.hyperledger.fabric.client.Contract;
 import org.hyperledger.fabric.client.Gateway;
 import org.hyperledger.fabric.client.Network;
+import org.hyperledger.fabric.client.Proposal;
+import org.hyperledger.fabric.client.Status;
+import org.hyperledger.fabric.client.SubmittedTransaction;
+import org.hyperledger.fabric.client.Transaction;
 import org.hyperledger.fabric.client.identity.Identities;
 import org.hyperledger.fabric.client.identity.Identity;
 import org.hyperledger.fabric.client.identity.Signer;
@@ -28,25 +43,80 @@ import java.security.InvalidKeyException;
 import java.security.PrivateKey;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 @Component
 public class FabricGatewayClient implements FabricClient, FabricNetworkProvider, AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(FabricGatewayClient.class);
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final long MAX_INIT_RETRY_SECONDS = 60;
 
     private final FabricProperties fabricProperties;
-
-    private final Map<String, ManagedChannel> channels = new ConcurrentHashMap<>();
-    private final Map<String, Gateway> gateways = new ConcurrentHashMap<>();
-    private final Map<String, Network> networks = new ConcurrentHashMap<>();
-    private final Map<String, Contract> contracts = new ConcurrentHashMap<>();
-
-    public FabricGatewayClient(FabricProperties fabricProperties) {
+    private final ExecutorService callExecutor;
+    private final ExecutorService submitExecutor;
+    private final ScheduledExecutorService hedgeTimer;
+    private final EvaluateHedger hedger;
+
+    private final ExecutorService initExecutor;
+    private final ScheduledExecutorService initRetryTimer;
+
+    private final Map<String, List<GatewayPeer>> peers = new ConcurrentHashMap<>();
+    private final Map<String, OrgState> orgStates = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrencyLimiter> orgLimiters = new ConcurrentHashMap<>();
+    private final AtomicInteger rotation = new AtomicInteger();
+    private final Map<EvaluateKey, InFlightEvaluate> inFlightEvaluates = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> commitEpochs = new ConcurrentHashMap<>();
+
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> evaluateLatency = new ConcurrentHashMap<>();
+    private final Counter evaluatePeerCalls;
+    private final Counter evaluateCoalesced;
+
+    public FabricGatewayClient(FabricProperties fabricProperties, AppProperties appProperties, MeterRegistry meterRegistry) {
         this.fabricProperties = fabricProperties;
+        // evaluate、背书以及等待提交状态在 SDK 里都是阻塞调用（只有 submitAsync 不等提交状态），异步查询放到这里：
+        // 开启虚拟线程时每个调用一个虚拟线程，否则为最多 app.fabricCallThreads 个平台线程，占满时直接返回 503
+        this.callExecutor = appProperties.virtualThreads()
+                ? TaskExecutors.newExecutor("fabric-call-", true)
+                : TaskExecutors.newBoundedExecutor("fabric-call-", appProperties.fabricCallThreads());
+        // 异步提交要等上链（最长 1m），单独一组线程（上限 app.fabricSubmitThreads），上链变慢时不挤占查询
+        this.submitExecutor = appProperties.virtualThreads()
+                ? TaskExecutors.newExecutor("fabric-submit-", true)
+                : TaskExecutors.newBoundedExecutor("fabric-submit-", appProperties.fabricSubmitThreads());
+        this.initExecutor = TaskExecutors.newPlatformExecutor("fabric-init-");
+        this.initRetryTimer = TaskExecutors.newScheduledExecutor("fabric-init-retry");
+        if (appProperties.hedgeEnabled()) {
+            this.hedgeTimer = TaskExecutors.newScheduledExecutor("fabric-hedge-timer");
+            this.hedger = new EvaluateHedger(callExecutor, hedgeTimer, appProperties.hedgePercentile(),
+                    appProperties.hedgeMinDelayMillis(), appProperties.hedgeMaxDelayMillis(), meterRegistry);
+        } else {
+            this.hedgeTimer = null;
+            this.hedger = null;
+        }
+        this.appProperties = appProperties;
+        this.meterRegistry = meterRegistry;
+        this.evaluatePeerCalls = meterRegistry.counter("fabric.evaluate.requests", "source", "peer");
+        this.evaluateCoalesced = meterRegistry.counter("fabric.evaluate.requests", "source", "coalesced");
     }
 
     @PostConstruct
@@ -56,91 +126,480 @@ public class FabricGatewayClient implements FabricClient, FabricNetworkProvider,
         }
         requireNonBlank(fabricProperties.channelName(), "fabric.channelName");
         requireNonBlank(fabricProperties.chaincodeName(), "fabric.chaincodeName");
+        // 不带通道的调用（evaluate(org, fn)、getNetwork(org)、预热）都走默认通道/链码
+        for (String orgName : fabricProperties.organizations().keySet()) {
+            List<String> chaincodes = fabricProperties.channelsOf(orgName).get(fabricProperties.channelName());
+            if (chaincodes == null || !chaincodes.contains(fabricProperties.chaincodeName())) {
+                throw new IllegalStateException("组织[" + orgName + "]的 channels 必须包含默认通道/链码: "
+                        + fabricProperties.channelName() + "/" + fabricProperties.chaincodeName());
+            }
+        }
 
-        for (Map.Entry<String, OrganizationProperties> entry : fabricProperties.organizations().entrySet()) {
-            String orgName = entry.getKey();
-            OrganizationProperties org = entry.getValue();
+        // 各组织并行初始化；失败的组织在后台重试，不阻止应用启动，就绪探针在全部组织预热完成前保持 OUT_OF_SERVICE
+        List<CompletableFuture<Void>> connecting = new ArrayList<>();
+        for (String orgName : fabricProperties.organizations().keySet()) {
+            orgStates.put(orgName, OrgState.CONNECTING);
+            connecting.add(CompletableFuture.runAsync(() -> connect(orgName, 0), initExecutor));
+        }
+        CompletableFuture.allOf(connecting.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * 各组织的初始化状态，全部为 READY 时应用才接收流量。
+     */
+    public Map<String, String> orgStates() {
+        Map<String, String> states = new TreeMap<>();
+        orgStates.forEach((orgName, state) -> states.put(orgName, state.name()));
+        return states;
+    }
+
+    public boolean ready() {
+        return !orgStates.isEmpty() && orgStates.values().stream().allMatch(state -> state == OrgState.READY);
+    }
+
+    /**
+     * 读取证书和私钥、创建连接池；只创建连接对象，不等网络握手，完成后交给预热。
+     */
+    private void connect(String orgName, int attempt) {
+        OrganizationProperties org = fabricProperties.organizations().get(orgName);
+        List<GatewayPeer> orgPeers = new ArrayList<>();
+        try {
+            Identity identity = newIdentity(org);
+            Signer signer = newSigner(org);
+            Map<String, List<String>> orgChannels = fabricProperties.channelsOf(orgName);
+
+            GrpcConnectionProperties grpc = org.grpcSettings();
+            CallDeadlines deadlines = fabricProperties.defaultDeadlines();
+            for (PeerProperties peerProperties : org.gatewayPeers()) {
+                List<GatewayPeer.Connection> pool = new ArrayList<>(grpc.poolSize());
+                GatewayPeer.Connection events = null;
+                try {
+                    for (int i = 0; i < grpc.poolSize(); i++) {
+                        pool.add(newConnection(peerProperties, grpc, deadlines, identity, signer));
+                    }
+                    events = newConnection(peerProperties, grpc, deadlines, identity, signer);
+                } catch (Exception e) {
+                    pool.forEach(GatewayPeer.Connection::close);
+                    throw e;
+                }
+                GatewayPeer peer = new GatewayPeer(orgName, peerProperties.endpoint(), pool, events,
+                        newLimiter("peer", orgName + "/" + peerProperties.endpoint(), 1));
+                orgPeers.add(peer);
+
+                // 同一连接上的所有通道/链码复用一个 gRPC 连接和 Gateway
+                for (Map.Entry<String, List<String>> channelEntry : orgChannels.entrySet()) {
+                    peer.addChannel(channelEntry.getKey(), channelEntry.getValue());
+                }
+
+                log.info("Fabric gateway initialized: org={}, peerEndpoint={}, gatewayPeer={}, mspId={}, channels={}, poolSize={}",
+                        orgName, peerProperties.endpoint(), peerProperties.gatewayPeer(), org.mspId(), orgChannels, grpc.poolSize());
+            }
+            ConcurrencyLimiter orgLimiter = newLimiter("org", orgName, orgPeers.size());
+            if (orgLimiter != null) {
+                orgLimiters.put(orgName, orgLimiter);
+            }
+            peers.put(orgName, List.copyOf(orgPeers));
+        } catch (Exception e) {
+            orgPeers.forEach(GatewayPeer::close);
+            orgStates.put(orgName, OrgState.FAILED);
+            long delay = retryDelaySeconds(attempt);
+            log.error("Fabric gateway init failed, retrying in {}s: org={}, attempt={}, error={}",
+                    delay, orgName, attempt + 1, e.getMessage());
+            scheduleRetry(() -> connect(orgName, attempt + 1), delay);
+            return;
+        }
+        orgStates.put(orgName, OrgState.WARMING);
+        initExecutor.execute(() -> warmUp(orgName, 0));
+    }
+
+    /**
+     * 在每个 peer 的每条连接上执行若干次廉价查询，提前完成 TLS 握手、HTTP/2 建连和首次调用路径的类加载/JIT。
+     * 至少一个 peer 可达即视为该组织就绪；链码业务错误也说明连接已建立。
+     */
+    private void warmUp(String orgName, int attempt) {
+        List<GatewayPeer> orgPeers = peers.get(orgName);
+        if (orgPeers == null) {
+            return;
+        }
+        orgStates.put(orgName, OrgState.WARMING);
+        ChaincodeRef chaincode = defaultChaincode();
+        String function = appProperties.fabricWarmUpFunction();
+        long start = System.nanoTime();
+        Exception lastFailure = null;
+        int warmed = 0;
+        for (GatewayPeer peer : orgPeers) {
             try {
-                ManagedChannel channel = newGrpcConnection(org);
-                Identity identity = newIdentity(org);
-                Signer signer = newSigner(org);
-
-                Gateway gateway = Gateway.newInstance()
-                        .identity(identity)
-                        .signer(signer)
-                        .connection(channel)
-                        .evaluateOptions(options -> options.withDeadlineAfter(5, TimeUnit.SECONDS))
-                        .endorseOptions(options -> options.withDeadlineAfter(15, TimeUnit.SECONDS))
-                        .submitOptions(options -> options.withDeadlineAfter(5, TimeUnit.SECONDS))
-                        .commitStatusOptions(options -> options.withDeadlineAfter(1, TimeUnit.MINUTES))
-                        .connect();
-
-                Network network = gateway.getNetwork(fabricProperties.channelName());
-                Contract contract = network.getContract(fabricProperties.chaincodeName());
-
-                channels.put(orgName, channel);
-                gateways.put(orgName, gateway);
-                networks.put(orgName, network);
-                contracts.put(orgName, contract);
-
-                log.info("Fabric gateway initialized: org={}, peerEndpoint={}, gatewayPeer={}, mspId={}",
-                        orgName, org.peerEndpoint(), org.gatewayPeer(), org.mspId());
+                peer.warmUp(chaincode, function, WARM_UP_ROUNDS);
+                warmed++;
             } catch (Exception e) {
-                closeQuietly();
-                throw new IllegalStateException("初始化组织[" + orgName + "]的 Fabric Gateway 失败: " + e.getMessage(), e);
+                lastFailure = e;
+                log.warn("Fabric gateway warm-up failed: org={}, peerEndpoint={}, error={}",
+                        orgName, peer.endpoint(), FabricErrorTranslator.toUserMessage(e));
             }
         }
+        if (warmed > 0) {
+            orgStates.put(orgName, OrgState.READY);
+            log.info("Fabric gateway warmed up: org={}, peers={}/{}, elapsedMs={}",
+                    orgName, warmed, orgPeers.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return;
+        }
+        orgStates.put(orgName, OrgState.FAILED);
+        long delay = retryDelaySeconds(attempt);
+        log.error("Fabric gateway warm-up failed on all peers, retrying in {}s: org={}, attempt={}, error={}",
+                delay, orgName, attempt + 1, lastFailure == null ? null : lastFailure.getMessage());
+        scheduleRetry(() -> warmUp(orgName, attempt + 1), delay);
+    }
+
+    private void scheduleRetry(Runnable task, long delaySeconds) {
+        try {
+            initRetryTimer.schedule(() -> initExecutor.execute(task), delaySeconds, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // 应用正在关闭
+        }
+    }
+
+    private static long retryDelaySeconds(int attempt) {
+        return Math.min(1L << Math.min(attempt + 1, 6), MAX_INIT_RETRY_SECONDS);
     }
 
     @Override
     public byte[] evaluate(String orgName, String transactionName, String... args) {
-        Contract contract = getContract(orgName);
+        return evaluate(orgName, defaultChaincode(), transactionName, args);
+    }
+
+    @Override
+    public byte[] evaluate(String orgName, ChaincodeRef chaincode, String transactionName, String... args) {
+        Optional<Duration> deadline = fabricProperties.evaluateDeadlineOf(transactionName);
+        long start = System.nanoTime();
         try {
-            return contract.evaluateTransaction(transactionName, args);
+            return withFailover(orgName, chaincode, contract -> deadline.isEmpty()
+                    ? contract.evaluateTransaction(transactionName, args)
+                    : contract.newProposal(transactionName).addArguments(args).build().evaluate(withDeadline(deadline.get())));
+        } finally {
+            evaluateLatency.computeIfAbsent(orgName, this::newEvaluateTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer newEvaluateTimer(String orgName) {
+        return Timer.builder("fabric.evaluate.latency")
+                .tag("org", orgName)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] submit(String orgName, String transactionName, String... args) {
+        return submit(orgName, defaultChaincode(), transactionName, args);
+    }
+
+    @Override
+    public byte[] submit(String orgName, ChaincodeRef chaincode, String transactionName, String... args) {
+        Transaction transaction = endorse(orgName, chaincode, transactionName, args);
+        try {
+            return transaction.submit();
         } catch (Exception e) {
             throw new RuntimeException(FabricErrorTranslator.toUserMessage(e), e);
         }
     }
 
     @Override
-    public byte[] submit(String orgName, String transactionName, String... args) {
-        Contract contract = getContract(orgName);
+    public FabricSubmission beginSubmit(String orgName, String transactionName, String... args) {
+        return beginSubmit(orgName, defaultChaincode(), transactionName, args);
+    }
+
+    @Override
+    public FabricSubmission beginSubmit(String orgName, ChaincodeRef chaincode, String transactionName, String... args) {
+        Transaction transaction = endorse(orgName, chaincode, transactionName, args);
         try {
-            return contract.submitTransaction(transactionName, args);
+            return new GatewaySubmission(transaction.submitAsync());
         } catch (Exception e) {
             throw new RuntimeException(FabricErrorTranslator.toUserMessage(e), e);
         }
     }
 
-    private Contract getContract(String orgName) {
-        Contract contract = contracts.get(orgName);
-        if (contract == null) {
-            throw new IllegalArgumentException("未知组织: " + orgName);
+    /**
+     * 背书阶段还没有发往排序节点，peer 不可用时换 peer 重新构造提案（新的交易 ID）是安全的；
+     * 背书成功后的提交只走该 peer，失败不重试，避免同一业务写两次。
+     */
+    private Transaction endorse(String orgName, ChaincodeRef chaincode, String transactionName, String... args) {
+        Optional<Duration> deadline = fabricProperties.endorseDeadlineOf(transactionName);
+        return withFailover(orgName, chaincode, contract -> {
+            Proposal proposal = contract.newProposal(transactionName).addArguments(args).build();
+            return deadline.isEmpty() ? proposal.endorse() : proposal.endorse(withDeadline(deadline.get()));
+        });
+    }
+
+    private static UnaryOperator<CallOptions> withDeadline(Duration deadline) {
+        return options -> options.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 同名上限在初始化重试之间复用，避免重复注册 gauge。
+     *
+     * @param peerCount 组织级上限按 peer 数放大
+     */
+    private ConcurrencyLimiter newLimiter(String scope, String name, int peerCount) {
+        if (!appProperties.fabricLimitEnabled()) {
+            return null;
+        }
+        return limiters.computeIfAbsent(scope + ":" + name, key -> new ConcurrencyLimiter(scope, name,
+                appProperties.fabricLimitInitial() * peerCount,
+                appProperties.fabricLimitMin(),
+                appProperties.fabricLimitMax() * peerCount,
+                meterRegistry));
+    }
+
+    @Override
+    public CompletableFuture<byte[]> evaluateAsync(String orgName, String transactionName, String... args) {
+        return evaluateAsync(orgName, defaultChaincode(), transactionName, args);
+    }
+
+    /**
+     * 相同 (组织, 通道, 链码, 函数, 参数) 的查询在途时不再发起新调用，共享同一次 peer 返回的结果。
+     * <p>
+     * 合并会读到在途调用发起时的数据：在途调用发起之后本机又有写交易在该通道上链（{@link #localCommitted}）时不合并，
+     * 重新查询并取代在途表中的旧调用，保证提交返回后的查询能读到自己的写入；其他客户端的写入不做此保证。
+     */
+    @Override
+    public CompletableFuture<byte[]> evaluateAsync(String orgName, ChaincodeRef chaincode, String transactionName, String... args) {
+        EvaluateKey key = new EvaluateKey(orgName, chaincode.channelName(), chaincode.chaincodeName(), transactionName, Arrays.asList(args));
+        long epoch = commitEpoch(chaincode.channelName()).get();
+        CompletableFuture<byte[]> pending = new CompletableFuture<>();
+        InFlightEvaluate mine = new InFlightEvaluate(pending, epoch);
+        InFlightEvaluate inFlight = inFlightEvaluates.merge(key, mine,
+                (current, candidate) -> current.commitEpoch() >= epoch ? current : candidate);
+        if (inFlight != mine) {
+            evaluateCoalesced.increment();
+            // copy：单个调用方取消或超时不影响共享的调用
+            return inFlight.future().copy();
+        }
+        evaluatePeerCalls.increment();
+        try {
+            Supplier<byte[]> call = () -> evaluate(orgName, chaincode, transactionName, args);
+            (hedger == null ? CompletableFuture.supplyAsync(call, callExecutor) : hedger.evaluate(orgName, call))
+                    .whenComplete((result, error) -> {
+                        inFlightEvaluates.remove(key, mine);
+                        if (error != null) {
+                            pending.completeExceptionally(error instanceof RejectedExecutionException ? callsExhausted() : error);
+                        } else {
+                            pending.complete(result);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            inFlightEvaluates.remove(key, mine);
+            pending.completeExceptionally(callsExhausted());
+        }
+        return pending.copy();
+    }
+
+    @Override
+    public CompletableFuture<FabricCommitStatus> submitAsync(String orgName, String transactionName, String... args) {
+        return submitAsync(orgName, defaultChaincode(), transactionName, args);
+    }
+
+    @Override
+    public CompletableFuture<FabricCommitStatus> submitAsync(String orgName, ChaincodeRef chaincode, String transactionName, String... args) {
+        try {
+            return CompletableFuture.supplyAsync(() -> awaitValidCommit(beginSubmit(orgName, chaincode, transactionName, args)), submitExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(submitsExhausted());
         }
-        return contract;
+    }
+
+    @Override
+    public CompletableFuture<FabricSubmission> beginSubmitAsync(String orgName, String transactionName, String... args) {
+        try {
+            return CompletableFuture.supplyAsync(() -> beginSubmit(orgName, transactionName, args), submitExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(submitsExhausted());
+        }
+    }
+
+    @Override
+    public void localCommitted(String channelName) {
+        commitEpoch(channelName).incrementAndGet();
+    }
+
+    private AtomicLong commitEpoch(String channelName) {
+        return commitEpochs.computeIfAbsent(channelName, key -> new AtomicLong());
+    }
+
+    private static FabricCommitStatus awaitValidCommit(FabricSubmission submission) {
+        FabricCommitStatus status = submission.awaitCommit();
+        if (!status.successful()) {
+            throw new IllegalStateException("交易校验失败：" + status.validationCode() + "，交易 ID：" + submission.transactionId());
+        }
+        return status;
+    }
+
+    private ChaincodeRef defaultChaincode() {
+        return new ChaincodeRef(fabricProperties.channelName(), fabricProperties.chaincodeName());
     }
 
     @Override
     public Network getNetwork(String orgName) {
-        Network network = networks.get(orgName);
-        if (network == null) {
+        return getNetwork(orgName, fabricProperties.channelName());
+    }
+
+    /**
+     * 返回当前最优 peer 上的 Network；区块监听断线重连时重新获取，从而切到健康的 peer。
+     */
+    @Override
+    public Network getNetwork(String orgName, String channelName) {
+        return candidates(orgName).get(0).network(channelName);
+    }
+
+    /**
+     * 按 peer 依次尝试：只有 peer 不可用（UNAVAILABLE / DEADLINE_EXCEEDED / RESOURCE_EXHAUSTED）才换下一个，
+     * 链码业务错误直接返回。组织或所有 peer 都达到并发上限时直接返回 503，不排队。
+     */
+    private <T> T withFailover(String orgName, ChaincodeRef chaincode, PeerCall<T> call) {
+        List<GatewayPeer> candidates = candidates(orgName);
+        ConcurrencyLimiter orgLimiter = orgLimiters.get(orgName);
+        if (orgLimiter != null && !orgLimiter.tryAcquire()) {
+            throw overloaded(orgName);
+        }
+        boolean orgOverloaded = false;
+        boolean cancelled = false;
+        try {
+            Exception lastFailure = null;
+            for (GatewayPeer peer : candidates) {
+                Contract contract = peer.contract(chaincode);
+                if (!peer.tryAcquire()) {
+                    continue;
+                }
+                boolean peerFailure = false;
+                try {
+                    T result = call.apply(contract);
+                    peer.markReachable();
+                    return result;
+                } catch (Exception e) {
+                    // 对冲的另一次调用已先返回、本次被取消（CANCELLED）：与 peer 状态无关，不更新健康状态和并发上限，也不换 peer 重试
+                    if (Context.current().isCancelled()) {
+                        cancelled = true;
+                        throw new RuntimeException(FabricErrorTranslator.toUserMessage(e), e);
+                    }
+                    peerFailure = peer.record(e);
+                    if (!peerFailure) {
+                        throw new RuntimeException(FabricErrorTranslator.toUserMessage(e), e);
+                    }
+                    log.warn("Fabric peer unavailable, trying next peer: org={}, peer={}, error={}",
+                            orgName, peer.endpoint(), FabricErrorTranslator.toUserMessage(e));
+                    lastFailure = e;
+                } finally {
+                    if (cancelled) {
+                        peer.releaseCancelled();
+                    } else {
+                        peer.release(peerFailure);
+                    }
+                }
+            }
+            if (lastFailure == null) {
+                throw overloaded(orgName);
+            }
+            orgOverloaded = true;
+            throw new RuntimeException(FabricErrorTranslator.toUserMessage(lastFailure), lastFailure);
+        } finally {
+            if (orgLimiter != null) {
+                if (cancelled) {
+                    orgLimiter.releaseCancelled();
+                } else {
+                    orgLimiter.release(orgOverloaded);
+                }
+            }
+        }
+    }
+
+    private static ApiException callsExhausted() {
+        return ApiException.serviceUnavailable("Fabric 调用线程已满，请稍后重试");
+    }
+
+    private static ApiException submitsExhausted() {
+        return ApiException.serviceUnavailable("Fabric 提交线程已满，请稍后重试");
+    }
+
+    private static ApiException overloaded(String orgName) {
+        return ApiException.serviceUnavailable("组织[" + orgName + "]的 Fabric 请求过多，请稍后重试");
+    }
+
+    /**
+     * 健康的 peer 按在途请求数升序（相同时轮转，避免低负载时总落在第一个），
+     * 退避中的 peer 排在最后、按恢复时间升序，作为全部故障时的兜底。
+     */
+    private List<GatewayPeer> candidates(String orgName) {
+        List<GatewayPeer> orgPeers = peers.get(orgName);
+        if (orgPeers == null) {
+            if (orgStates.containsKey(orgName)) {
+                throw ApiException.serviceUnavailable("组织[" + orgName + "]的 Fabric Gateway 尚未连接成功，请稍后重试");
+            }
             throw new IllegalArgumentException("未知组织: " + orgName);
         }
-        return network;
+        if (orgPeers.size() == 1) {
+            return orgPeers;
+        }
+        long now = System.nanoTime();
+        int offset = Math.floorMod(rotation.getAndIncrement(), orgPeers.size());
+        List<PeerSnapshot> snapshots = new ArrayList<>(orgPeers.size());
+        for (int i = 0; i < orgPeers.size(); i++) {
+            GatewayPeer peer = orgPeers.get((offset + i) % orgPeers.size());
+            boolean healthy = peer.healthy(now);
+            snapshots.add(new PeerSnapshot(peer, healthy, healthy ? peer.outstanding() : 0, healthy ? 0 : peer.unhealthyUntil() - now));
+        }
+        snapshots.sort(Comparator.comparing((PeerSnapshot snapshot) -> !snapshot.healthy())
+                .thenComparingInt(PeerSnapshot::outstanding)
+                .thenComparingLong(PeerSnapshot::recoverIn));
+        List<GatewayPeer> ordered = new ArrayList<>(snapshots.size());
+        for (PeerSnapshot snapshot : snapshots) {
+            ordered.add(snapshot.peer());
+        }
+        return ordered;
+    }
+
+    private static GatewayPeer.Connection newConnection(
+            PeerProperties peer,
+            GrpcConnectionProperties grpc,
+            CallDeadlines deadlines,
+            Identity identity,
+            Signer signer
+    ) throws IOException, CertificateException {
+        ManagedChannel channel = newGrpcConnection(peer, grpc);
+        try {
+            Gateway gateway = Gateway.newInstance()
+                    .identity(identity)
+                    .signer(signer)
+                    .connection(channel)
+                    .evaluateOptions(withDeadline(deadlines.evaluate()))
+                    .endorseOptions(withDeadline(deadlines.endorse()))
+                    .submitOptions(withDeadline(deadlines.submit()))
+                    .commitStatusOptions(withDeadline(deadlines.commitStatus()))
+                    .connect();
+            return new GatewayPeer.Connection(channel, gateway);
+        } catch (RuntimeException e) {
+            channel.shutdownNow();
+            throw e;
+        }
     }
 
-    private static ManagedChannel newGrpcConnection(OrganizationProperties org) throws IOException, CertificateException {
-        requireNonBlank(org.peerEndpoint(), "peerEndpoint");
-        requireNonBlank(org.gatewayPeer(), "gatewayPeer");
-        requireNonBlank(org.tlsCertPath(), "tlsCertPath");
+    private static ManagedChannel newGrpcConnection(PeerProperties peer, GrpcConnectionProperties grpc) throws IOException, CertificateException {
+        requireNonBlank(peer.endpoint(), "peerEndpoint");
+        requireNonBlank(peer.gatewayPeer(), "gatewayPeer");
+        requireNonBlank(peer.tlsCertPath(), "tlsCertPath");
 
         var credentials = TlsChannelCredentials.newBuilder()
-                .trustManager(Path.of(org.tlsCertPath()).toFile())
+                .trustManager(Path.of(peer.tlsCertPath()).toFile())
                 .build();
 
-        return Grpc.newChannelBuilder(org.peerEndpoint(), credentials)
-                .overrideAuthority(org.gatewayPeer())
-                .build();
+        NettyChannelBuilder builder = NettyChannelBuilder.forTarget(peer.endpoint(), credentials)
+                .overrideAuthority(peer.gatewayPeer());
+        if (grpc.keepAliveTimeSeconds() > 0) {
+            builder.keepAliveTime(grpc.keepAliveTimeSeconds(), TimeUnit.SECONDS)
+                    .keepAliveTimeout(grpc.keepAliveTimeoutSeconds(), TimeUnit.SECONDS)
+                    .keepAliveWithoutCalls(grpc.keepAliveWithoutCalls());
+        }
+        if (grpc.flowControlWindowKb() > 0) {
+            builder.initialFlowControlWindow(grpc.flowControlWindowKb() * 1024);
+        }
+        return builder.build();
     }
 
     private static Identity newIdentity(OrganizationProperties org) throws IOException, CertificateException {
@@ -208,26 +667,69 @@ public class FabricGatewayClient implements FabricClient, FabricNetworkProvider,
 
     @PreDestroy
     public void shutdown() {
+        initRetryTimer.shutdownNow();
+        initExecutor.shutdownNow();
+        callExecutor.shutdownNow();
+        submitExecutor.shutdownNow();
+        if (hedgeTimer != null) {
+            hedgeTimer.shutdownNow();
+        }
         closeQuietly();
     }
 
     private void closeQuietly() {
-        for (Gateway gateway : gateways.values()) {
-            try {
-                gateway.close();
-            } catch (Exception ignored) {
+        for (List<GatewayPeer> orgPeers : peers.values()) {
+            for (GatewayPeer peer : orgPeers) {
+                peer.close();
             }
         }
-        gateways.clear();
-        networks.clear();
+        peers.clear();
+        orgLimiters.clear();
+    }
+
+    private enum OrgState {
+        CONNECTING,
+        WARMING,
+        READY,
+        FAILED
+    }
+
+    private record GatewaySubmission(SubmittedTransaction submitted) implements FabricSubmission {
+        @Override
+        public String transactionId() {
+            return submitted.getTransactionId();
+        }
+
+        @Override
+        public byte[] result() {
+            return submitted.getResult();
+        }
 
-        for (ManagedChannel channel : channels.values()) {
+        @Override
+        public FabricCommitStatus awaitCommit() {
             try {
-                channel.shutdownNow();
-            } catch (Exception ignored) {
+                Status status = submitted.getStatus();
+                return new FabricCommitStatus(status.getBlockNumber(), status.getCode().name(), status.isSuccessful());
+            } catch (Exception e) {
+                throw new RuntimeException(FabricErrorTranslator.toUserMessage(e), e);
             }
         }
-        channels.clear();
-        contracts.clear();
+    }
+
+    @FunctionalInterface
+    private interface PeerCall<T> {
+        T apply(Contract contract) throws Exception;
+    }
+
+    private record PeerSnapshot(GatewayPeer peer, boolean healthy, int outstanding, long recoverIn) {
+    }
+
+    private record EvaluateKey(String orgName, String channelName, String chaincodeName, String transactionName, List<String> args) {
+    }
+
+    /**
+     * @param commitEpoch 调用发起时该通道的本机提交计数
+     */
+    private record InFlightEvaluate(CompletableFuture<byte[]> future, long commitEpoch) {
     }
 }
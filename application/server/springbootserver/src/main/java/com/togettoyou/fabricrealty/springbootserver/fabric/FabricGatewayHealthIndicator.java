@@ -0,0 +1,24 @@
+package com.togettoyou.fabricrealty.springbootserver.fabric;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fabric Gateway 初始化状态，纳入就绪探针（management.endpoint.health.group.readiness）：
+ * 所有组织连接并预热完成前为 OUT_OF_SERVICE，滚动发布时新实例不会在冷启动阶段接到流量。
+ */
+@Component
+public class FabricGatewayHealthIndicator implements HealthIndicator {
+    private final FabricGatewayClient gatewayClient;
+
+    public FabricGatewayHealthIndicator(FabricGatewayClient gatewayClient) {
+        this.gatewayClient = gatewayClient;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = gatewayClient.ready() ? Health.up() : Health.outOfService();
+        return builder.withDetails(gatewayClient.orgStates()).build();
+    }
+}
@@ -3,6 +3,10 @@ package com.togettoyou.fabricrealty.springbootserver.fabric;
 import org.hyperledger.fabric.client.Network;
 
 public interface FabricNetworkProvider {
+    /**
+     * 默认通道（fabric.channelName）。
+     */
     Network getNetwork(String orgName);
-}
 
+    Network getNetwork(String orgName, String channelName);
+}
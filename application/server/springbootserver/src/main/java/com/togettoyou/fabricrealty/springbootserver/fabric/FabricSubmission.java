@@ -0,0 +1,18 @@
+package com.togettoyou.fabricrealty.springbootserver.fabric;
+
+/**
+ * 已背书并发往排序节点、尚未确认上链的交易。
+ */
+public interface FabricSubmission {
+    String transactionId();
+
+    /**
+     * 背书时链码返回的结果。
+     */
+    byte[] result();
+
+    /**
+     * 阻塞等待交易所在区块提交（受 commitStatusOptions 的超时约束）。
+     */
+    FabricCommitStatus awaitCommit();
+}
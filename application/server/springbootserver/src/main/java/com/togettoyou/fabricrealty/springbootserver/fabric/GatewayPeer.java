@@ -0,0 +1,212 @@
+package com.togettoyou.fabricrealty.springbootserver.fabric;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import org.hyperledger.fabric.client.Contract;
+import org.hyperledger.fabric.client.Gateway;
+import org.hyperledger.fabric.client.Network;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 组织的一个 Gateway peer：evaluate/submit 用的连接池、区块事件流专用连接，外加在途请求数和健康状态。
+ * <p>
+ * 每条连接是独立的 HTTP/2 连接和 Gateway，调用按轮转分摊到连接池，避免所有请求挤在一条连接的并发流上限里；
+ * 长期存在的区块事件流单独占一条连接，不与短调用争用。
+ * <p>
+ * 健康状态只看 gRPC 状态码：连接类错误（UNAVAILABLE 等）视为 peer 故障，按连续失败次数指数退避（1s 起，最长 30s）；
+ * 链码返回的业务错误说明 peer 可达，与成功一样清零失败计数。
+ */
+final class GatewayPeer {
+    private static final Set<Status.Code> PEER_FAILURES = Set.of(
+            Status.Code.UNAVAILABLE,
+            Status.Code.DEADLINE_EXCEEDED,
+            Status.Code.RESOURCE_EXHAUSTED
+    );
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final String orgName;
+    private final String endpoint;
+    private final List<Connection> pool;
+    private final Connection events;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final ConcurrencyLimiter limiter;
+
+    private volatile int consecutiveFailures;
+    private volatile long unhealthyUntil;
+
+    /**
+     * @param limiter 该 peer 的并发上限，为 null 时不限制
+     */
+    GatewayPeer(String orgName, String endpoint, List<Connection> pool, Connection events, ConcurrencyLimiter limiter) {
+        this.orgName = orgName;
+        this.endpoint = endpoint;
+        this.pool = List.copyOf(pool);
+        this.events = events;
+        this.limiter = limiter;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    void addChannel(String channelName, Iterable<String> chaincodeNames) {
+        for (Connection connection : pool) {
+            Network network = connection.gateway.getNetwork(channelName);
+            for (String chaincodeName : chaincodeNames) {
+                connection.contracts.put(new ChaincodeRef(channelName, chaincodeName), network.getContract(chaincodeName));
+            }
+        }
+        events.networks.put(channelName, events.gateway.getNetwork(channelName));
+    }
+
+    /**
+     * 区块事件流使用专用连接上的 Network。
+     */
+    Network network(String channelName) {
+        Network network = events.networks.get(channelName);
+        if (network == null) {
+            throw new IllegalArgumentException("组织[" + orgName + "]未配置通道: " + channelName);
+        }
+        return network;
+    }
+
+    Contract contract(ChaincodeRef chaincode) {
+        Connection connection = pool.size() == 1 ? pool.get(0) : pool.get(Math.floorMod(next.getAndIncrement(), pool.size()));
+        Contract contract = connection.contracts.get(chaincode);
+        if (contract == null) {
+            throw new IllegalArgumentException("组织[" + orgName + "]未配置链码: " + chaincode.channelName() + "/" + chaincode.chaincodeName());
+        }
+        return contract;
+    }
+
+    /**
+     * 触发所有连接（含区块事件连接）建连，并在连接池每条连接上执行 {@code rounds} 次 {@code function} 查询。
+     * 链码业务错误同样说明 peer 可达；peer 不可用时抛出异常。
+     *
+     * @param function 为空时只触发建连，不发查询
+     */
+    void warmUp(ChaincodeRef chaincode, String function, int rounds) throws Exception {
+        events.channel.getState(true);
+        for (Connection connection : pool) {
+            connection.channel.getState(true);
+        }
+        if (function == null || function.isBlank()) {
+            return;
+        }
+        for (int i = 0; i < rounds * pool.size(); i++) {
+            try {
+                contract(chaincode).evaluateTransaction(function);
+                markReachable();
+            } catch (Exception e) {
+                if (record(e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * @return false 表示该 peer 已达并发上限
+     */
+    boolean tryAcquire() {
+        if (limiter != null && !limiter.tryAcquire()) {
+            return false;
+        }
+        outstanding.incrementAndGet();
+        return true;
+    }
+
+    void release(boolean overloaded) {
+        outstanding.decrementAndGet();
+        if (limiter != null) {
+            limiter.release(overloaded);
+        }
+    }
+
+    /**
+     * 调用被主动取消时归还名额，不作为健康或过载信号。
+     */
+    void releaseCancelled() {
+        outstanding.decrementAndGet();
+        if (limiter != null) {
+            limiter.releaseCancelled();
+        }
+    }
+
+    boolean healthy(long now) {
+        return consecutiveFailures == 0 || now - unhealthyUntil >= 0;
+    }
+
+    long unhealthyUntil() {
+        return unhealthyUntil;
+    }
+
+    synchronized void markReachable() {
+        consecutiveFailures = 0;
+    }
+
+    synchronized void markFailed() {
+        consecutiveFailures = Math.min(consecutiveFailures + 1, 16);
+        long backoff = Math.min(TimeUnit.SECONDS.toNanos(1) << (consecutiveFailures - 1), MAX_BACKOFF_NANOS);
+        unhealthyUntil = System.nanoTime() + backoff;
+    }
+
+    /**
+     * 根据调用结果更新健康状态。
+     *
+     * @return true 表示 peer 不可用导致的失败，可以换一个 peer 重试
+     */
+    boolean record(Throwable error) {
+        if (error == null || !isPeerFailure(error)) {
+            markReachable();
+            return false;
+        }
+        markFailed();
+        return true;
+    }
+
+    void close() {
+        events.close();
+        for (Connection connection : pool) {
+            connection.close();
+        }
+    }
+
+    static boolean isPeerFailure(Throwable error) {
+        return PEER_FAILURES.contains(Status.fromThrowable(error).getCode());
+    }
+
+    static final class Connection {
+        private final ManagedChannel channel;
+        private final Gateway gateway;
+        private final Map<String, Network> networks = new ConcurrentHashMap<>();
+        private final Map<ChaincodeRef, Contract> contracts = new ConcurrentHashMap<>();
+
+        Connection(ManagedChannel channel, Gateway gateway) {
+            this.channel = channel;
+            this.gateway = gateway;
+        }
+
+        void close() {
+            try {
+                gateway.close();
+            } catch (Exception ignored) {
+            }
+            try {
+                channel.shutdownNow();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+}
@@ -2,73 +2,82 @@ package com.togettoyou.fabricrealty.springbootserver.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockQueryResultDto;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.QueryResultDto;
+import com.togettoyou.fabricrealty.springbootserver.api.dto.SubmissionDto;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.TransactionDto;
-import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorage;
-import com.togettoyou.fabricrealty.springbootserver.common.ApiException;
 import com.togettoyou.fabricrealty.springbootserver.fabric.FabricClient;
-import com.togettoyou.fabricrealty.springbootserver.fabric.FabricErrorTranslator;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BankService {
-    private static final String BANK_ORG = "org2";
+    public static final String BANK_ORG = "org2";
 
     private final FabricClient fabricClient;
     private final ObjectMapper objectMapper;
-    private final BlockStorage blockStorage;
+    private final StateReadModel readModel;
+    private final SubmissionTracker submissionTracker;
+    private final StateQueryCache queryCache;
 
-    public BankService(FabricClient fabricClient, ObjectMapper objectMapper, BlockStorage blockStorage) {
+    public BankService(
+            FabricClient fabricClient,
+            ObjectMapper objectMapper,
+            StateReadModel readModel,
+            SubmissionTracker submissionTracker,
+            StateQueryCache queryCache
+    ) {
         this.fabricClient = fabricClient;
         this.objectMapper = objectMapper;
-        this.blockStorage = blockStorage;
+        this.readModel = readModel;
+        this.submissionTracker = submissionTracker;
+        this.queryCache = queryCache;
     }
 
-    public void completeTransaction(String txId) {
+    public CompletableFuture<Void> completeTransaction(String txId) {
         String now = OffsetDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
-        try {
-            fabricClient.submit(BANK_ORG, "CompleteTransaction", txId, now);
-        } catch (Exception e) {
-            throw new ApiException(500, "完成交易失败：" + FabricErrorTranslator.toUserMessage(e));
-        }
+        return FabricCalls.write(
+                () -> fabricClient.submitAsync(BANK_ORG, "CompleteTransaction", txId, now),
+                "完成交易失败："
+        ).thenAccept(status -> queryCache.localCommit(BANK_ORG, status.blockNum()));
     }
 
-    public TransactionDto queryTransaction(String txId) {
-        try {
-            byte[] result = fabricClient.evaluate(BANK_ORG, "QueryTransaction", txId);
-            return objectMapper.readValue(result, TransactionDto.class);
-        } catch (Exception e) {
-            throw new ApiException(500, "查询交易信息失败：" + FabricErrorTranslator.toUserMessage(e));
-        }
+    /**
+     * 发往排序节点后立即返回交易 ID，上链结果由 SubmissionTracker 在后台跟踪。
+     */
+    public CompletableFuture<SubmissionDto> completeTransactionAsync(String txId) {
+        String now = OffsetDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        return FabricCalls.write(
+                () -> fabricClient.beginSubmitAsync(BANK_ORG, "CompleteTransaction", txId, now),
+                "完成交易失败："
+        ).thenApply(submission -> submissionTracker.track(BANK_ORG, "CompleteTransaction", submission));
     }
 
-    public QueryResultDto<TransactionDto> queryTransactionList(int pageSize, String bookmark, String status) {
-        try {
-            byte[] result = fabricClient.evaluate(
-                    BANK_ORG,
-                    "QueryTransactionList",
-                    String.valueOf(pageSize),
-                    bookmark,
-                    status
-            );
-            return objectMapper.readValue(result, new TypeReference<>() {
-            });
-        } catch (Exception e) {
-            throw new ApiException(500, "查询交易列表失败：" + FabricErrorTranslator.toUserMessage(e));
-        }
+    public CompletableFuture<TransactionDto> queryTransaction(String txId) {
+        return queryCache.get(BANK_ORG, StateQueryCache.TRANSACTION, txId, () -> FabricCalls.read(
+                () -> readModel.findTransaction(BANK_ORG, txId),
+                () -> fabricClient.evaluateAsync(BANK_ORG, "QueryTransaction", txId),
+                result -> objectMapper.readValue(result, TransactionDto.class),
+                "查询交易信息失败："
+        ));
     }
 
-    public BlockQueryResultDto queryBlockList(int pageSize, int pageNum) {
-        try {
-            return blockStorage.queryBlocks(BANK_ORG, pageSize, pageNum);
-        } catch (Exception e) {
-            throw new ApiException(500, "查询区块列表失败：" + e.getMessage());
-        }
+    public CompletableFuture<QueryResultDto<TransactionDto>> queryTransactionList(int pageSize, String bookmark, String status) {
+        return FabricCalls.read(
+                () -> readModel.listTransactions(BANK_ORG, pageSize, bookmark, status),
+                () -> fabricClient.evaluateAsync(
+                        BANK_ORG,
+                        "QueryTransactionList",
+                        String.valueOf(pageSize),
+                        bookmark,
+                        status
+                ),
+                result -> objectMapper.readValue(result, new TypeReference<QueryResultDto<TransactionDto>>() {
+                }),
+                "查询交易列表失败："
+        );
     }
 }
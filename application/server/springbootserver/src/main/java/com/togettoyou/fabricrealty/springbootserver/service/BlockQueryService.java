@@ -0,0 +1,123 @@
+package com.togettoyou.fabricrealty.springbootserver.service;
+
+import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockTransactionDto;
+import com.togettoyou.fabricrealty.springbootserver.block.archive.BlockArchive;
+import com.togettoyou.fabricrealty.springbootserver.block.cache.BlockPageCache;
+import com.togettoyou.fabricrealty.springbootserver.block.model.ArchivedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockListPage;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockTransactionRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.push.BlockEventHub;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockLedgerResolver;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockTransactionStore;
+import com.togettoyou.fabricrealty.springbootserver.common.ApiException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 三个组织共用的区块查询：按组织解析账本后读取区块列表、交易索引、归档区块和推送订阅。
+ */
+@Service
+public class BlockQueryService {
+    private final BlockPageCache blockPageCache;
+    private final BlockLedgerResolver ledgerResolver;
+    private final BlockTransactionStore transactionStore;
+    private final BlockArchive blockArchive;
+    private final BlockEventHub blockEventHub;
+
+    public BlockQueryService(
+            BlockPageCache blockPageCache,
+            BlockLedgerResolver ledgerResolver,
+            BlockTransactionStore transactionStore,
+            BlockArchive blockArchive,
+            BlockEventHub blockEventHub
+    ) {
+        this.blockPageCache = blockPageCache;
+        this.ledgerResolver = ledgerResolver;
+        this.transactionStore = transactionStore;
+        this.blockArchive = blockArchive;
+        this.blockEventHub = blockEventHub;
+    }
+
+    public BlockListPage queryBlockList(String orgName, int pageSize, int pageNum, String channelName) {
+        String ledgerKey = ledgerKey(orgName, channelName);
+        try {
+            return blockPageCache.page(ledgerKey, pageSize, pageNum);
+        } catch (Exception e) {
+            throw new ApiException(500, "查询区块列表失败：" + e.getMessage());
+        }
+    }
+
+    public SseEmitter streamBlocks(String orgName, String lastEventId, String channelName) {
+        String ledgerKey = ledgerKey(orgName, channelName);
+        try {
+            return blockEventHub.subscribe(ledgerKey, lastEventId);
+        } catch (Exception e) {
+            throw new ApiException(500, "订阅区块推送失败：" + e.getMessage());
+        }
+    }
+
+    public BlockTransactionDto queryBlockTransaction(String orgName, String txId, String channelName) {
+        String ledgerKey = ledgerKey(orgName, channelName);
+        Optional<BlockTransactionRecord> record;
+        try {
+            record = transactionStore.findByTxId(ledgerKey, txId);
+        } catch (Exception e) {
+            throw new ApiException(500, "查询区块交易失败：" + e.getMessage());
+        }
+        return record.map(this::toBlockTransactionDto)
+                .orElseThrow(() -> new ApiException(404, "交易不存在: " + txId));
+    }
+
+    public List<BlockTransactionDto> queryBlockTransactions(String orgName, long blockNum, String channelName) {
+        String ledgerKey = ledgerKey(orgName, channelName);
+        try {
+            return transactionStore.findByBlock(ledgerKey, blockNum).stream()
+                    .map(this::toBlockTransactionDto)
+                    .toList();
+        } catch (Exception e) {
+            throw new ApiException(500, "查询区块交易失败：" + e.getMessage());
+        }
+    }
+
+    public ArchivedBlock queryRawBlock(String orgName, long blockNum, String channelName) {
+        String ledgerKey = ledgerKey(orgName, channelName);
+        if (!blockArchive.enabled()) {
+            throw new ApiException(404, "未开启区块归档");
+        }
+        Optional<ArchivedBlock> block;
+        try {
+            block = blockArchive.find(ledgerKey, blockNum);
+        } catch (Exception e) {
+            throw new ApiException(500, "查询区块详情失败：" + e.getMessage());
+        }
+        return block.orElseThrow(() -> new ApiException(404, "区块未归档: " + blockNum));
+    }
+
+    /**
+     * channel 为空时使用默认通道；未配置的 channel 参数返回 400。
+     */
+    private String ledgerKey(String orgName, String channelName) {
+        try {
+            return channelName.isEmpty()
+                    ? ledgerResolver.ledgerKey(orgName)
+                    : ledgerResolver.ledgerKey(orgName, channelName);
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, e.getMessage());
+        }
+    }
+
+    private BlockTransactionDto toBlockTransactionDto(BlockTransactionRecord record) {
+        return new BlockTransactionDto(
+                record.txId(),
+                record.blockNum(),
+                record.txIndex(),
+                record.chaincodeName(),
+                record.functionName(),
+                record.validationCode(),
+                record.txTime()
+        );
+    }
+}
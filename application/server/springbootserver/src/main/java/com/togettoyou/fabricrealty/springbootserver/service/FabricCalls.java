@@ -0,0 +1,71 @@
+package com.togettoyou.fabricrealty.springbootserver.service;
+
+import com.togettoyou.fabricrealty.springbootserver.common.ApiException;
+import com.togettoyou.fabricrealty.springbootserver.fabric.FabricErrorTranslator;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * 业务接口的异步组合：本地读模型命中直接完成，否则等待 Fabric 调用；解码在回调里完成，
+ * 任何失败都转成与同步版本相同文案的 ApiException(500)。
+ */
+final class FabricCalls {
+    private FabricCalls() {
+    }
+
+    static <T> CompletableFuture<T> read(
+            Supplier<Optional<byte[]>> local,
+            Supplier<CompletableFuture<byte[]>> remote,
+            Decoder<T> decoder,
+            String failurePrefix
+    ) {
+        CompletableFuture<byte[]> source;
+        try {
+            Optional<byte[]> hit = local.get();
+            source = hit.isPresent() ? CompletableFuture.completedFuture(hit.get()) : remote.get();
+        } catch (Exception e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+        return source.handle((result, error) -> {
+            if (error != null) {
+                throw failure(failurePrefix, error);
+            }
+            try {
+                return decoder.decode(result);
+            } catch (Exception e) {
+                throw failure(failurePrefix, e);
+            }
+        });
+    }
+
+    static <T> CompletableFuture<T> write(Supplier<CompletableFuture<T>> call, String failurePrefix) {
+        CompletableFuture<T> source;
+        try {
+            source = call.get();
+        } catch (Exception e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+        return source.handle((result, error) -> {
+            if (error != null) {
+                throw failure(failurePrefix, error);
+            }
+            return result;
+        });
+    }
+
+    private static ApiException failure(String failurePrefix, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ApiException apiException) {
+            return apiException;
+        }
+        return new ApiException(500, failurePrefix + FabricErrorTranslator.toUserMessage(cause));
+    }
+
+    @FunctionalInterface
+    interface Decoder<T> {
+        T decode(byte[] bytes) throws Exception;
+    }
+}
@@ -0,0 +1,241 @@
+package com.togettoyou.fabricrealty.springbootserver.service;
+
+import com.togettoyou.fabricrealty.springbootserver.block.listener.BlockIngestionSink;
+import com.togettoyou.fabricrealty.springbootserver.block.listener.BlockListenerManager;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockTransactionRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.model.StateWrite;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockLedgerResolver;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import com.togettoyou.fabricrealty.springbootserver.config.FabricProperties;
+import com.togettoyou.fabricrealty.springbootserver.fabric.FabricClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * QueryRealEstate / QueryTransaction 的结果缓存，按 (账本, 对象类型, ID) 存放解码后的 DTO。
+ * <p>
+ * 区块采集看到校验通过的交易写入 RE / TX 复合键时精确失效对应条目；本机提交的写交易确认后清空该账本的条目，
+ * 并让读模型在投影追到该区块前不服务该账本，保证提交返回后立即查询能读到自己的写入。
+ * 只在区块监听实时（{@code app.readModelMaxStalenessSeconds} 内）时读写缓存，否则失效通知可能滞后，直接走原查询路径。
+ * <p>
+ * 查询在途期间同一账本发生的失效会让这次结果不回填（按账本的代际计数），避免把失效前读到的旧值写回缓存。
+ * <p>
+ * 每个账本一个 ConcurrentHashMap，读写不加全局锁；超出条数上限时由一个线程按最近访问时间批量淘汰最旧的一部分（近似 LRU）。
+ */
+@Component
+@Order(300)
+public class StateQueryCache implements BlockIngestionSink {
+    public static final String REAL_ESTATE = "RE";
+    public static final String TRANSACTION = "TX";
+
+    private static final String KEY_DELIMITER = "\u0000";
+    /**
+     * 超出上限时一次淘汰的比例，摊薄扫描排序的开销。
+     */
+    private static final int EVICT_DIVISOR = 10;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Duration maxStaleness;
+    private final String namespace;
+    private final String defaultChannel;
+    private final BlockLedgerResolver ledgerResolver;
+    private final BlockListenerManager listenerManager;
+    private final StateReadModel readModel;
+    private final FabricClient fabricClient;
+    private final int capacity;
+    private final Map<String, LedgerEntries> ledgers = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+
+    public StateQueryCache(
+            AppProperties appProperties,
+            FabricProperties fabricProperties,
+            BlockLedgerResolver ledgerResolver,
+            BlockListenerManager listenerManager,
+            StateReadModel readModel,
+            FabricClient fabricClient,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = appProperties.queryCacheEnabled();
+        this.ttlNanos = Duration.ofSeconds(appProperties.queryCacheTtlSeconds()).toNanos();
+        this.maxStaleness = Duration.ofSeconds(appProperties.readModelMaxStalenessSeconds());
+        this.namespace = fabricProperties.chaincodeName();
+        this.defaultChannel = fabricProperties.channelName();
+        this.ledgerResolver = ledgerResolver;
+        this.listenerManager = listenerManager;
+        this.readModel = readModel;
+        this.fabricClient = fabricClient;
+        this.capacity = appProperties.queryCacheSize();
+        this.hits = meterRegistry.counter("fabric.query.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("fabric.query.cache.requests", "result", "miss");
+        this.bypasses = meterRegistry.counter("fabric.query.cache.requests", "result", "bypass");
+        Gauge.builder("fabric.query.cache.size", ledgers, map -> {
+            long size = 0;
+            for (LedgerEntries ledger : map.values()) {
+                size += ledger.entries.size();
+            }
+            return size;
+        }).register(meterRegistry);
+    }
+
+    /**
+     * 命中直接返回已完成的 future；未命中时调用 loader，成功结果回填缓存，失败不缓存。
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> get(String orgName, String objectType, String id, Supplier<CompletableFuture<T>> loader) {
+        String ledgerKey = ledgerResolver.ledgerKey(orgName);
+        if (!enabled || !listenerManager.isFresh(ledgerKey, maxStaleness)) {
+            bypasses.increment();
+            return loader.get();
+        }
+        LedgerEntries ledger = ledger(ledgerKey);
+        CacheKey key = new CacheKey(objectType, id);
+        long now = System.nanoTime();
+        Entry entry = ledger.entries.get(key);
+        if (entry != null) {
+            if (now - entry.loadedAt < ttlNanos) {
+                entry.lastAccess = now;
+                hits.increment();
+                return CompletableFuture.completedFuture((T) entry.value);
+            }
+            ledger.entries.remove(key, entry);
+        }
+        misses.increment();
+        long startGeneration = ledger.generation.get();
+        return loader.get().thenApply(value -> {
+            if (value != null) {
+                // 代际在桶锁内比较：失效先递增代际再删除条目，回填要么被随后的删除清掉，要么看到新代际而放弃
+                ledger.entries.compute(key, (k, current) ->
+                        ledger.generation.get() == startGeneration ? new Entry(value, now) : current);
+                evictIfFull(ledger);
+            }
+            return value;
+        });
+    }
+
+    /**
+     * 本机提交的写交易已在默认通道的 {@code blockNum} 上链，区块监听可能还没处理到该区块：先让读模型在投影追到该区块前回退到 peer，
+     * 并让此前在途的 peer 查询不再被合并复用，再清空该账本的条目。写交易改了哪些 ID 要等区块解析后才知道（如 CompleteTransaction 还会改房产），因此按账本处理。
+     *
+     * @param blockNum 为 null 时只清空缓存
+     */
+    public void localCommit(String orgName, Long blockNum) {
+        String ledgerKey = ledgerResolver.ledgerKey(orgName);
+        if (blockNum != null) {
+            readModel.fence(ledgerKey, blockNum);
+        }
+        fabricClient.localCommitted(defaultChannel);
+        LedgerEntries ledger = ledger(ledgerKey);
+        ledger.generation.incrementAndGet();
+        ledger.entries.clear();
+    }
+
+    /**
+     * 在批次提交后失效：提交前失效的话，并发查询可能从读模型读到提交前的值并回填。
+     */
+    @Override
+    public void afterCommit(String ledgerKey, List<IngestedBlock> blocks) {
+        List<CacheKey> written = new ArrayList<>();
+        for (IngestedBlock block : blocks) {
+            for (BlockTransactionRecord tx : block.transactions()) {
+                if (!tx.valid()) {
+                    continue;
+                }
+                for (StateWrite write : tx.writes()) {
+                    CacheKey key = toCacheKey(write);
+                    if (key != null) {
+                        written.add(key);
+                    }
+                }
+            }
+        }
+        if (written.isEmpty()) {
+            return;
+        }
+        LedgerEntries ledger = ledger(ledgerKey);
+        ledger.generation.incrementAndGet();
+        for (CacheKey key : written) {
+            ledger.entries.remove(key);
+        }
+    }
+
+    private LedgerEntries ledger(String ledgerKey) {
+        return ledgers.computeIfAbsent(ledgerKey, key -> new LedgerEntries());
+    }
+
+    /**
+     * 超出上限时只让一个线程淘汰：按最近访问时间删掉最旧的 1/{@value #EVICT_DIVISOR}，其余线程不等待。
+     */
+    private void evictIfFull(LedgerEntries ledger) {
+        if (ledger.entries.size() <= capacity || !ledger.evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Map.Entry<CacheKey, Entry>> snapshot = new ArrayList<>(ledger.entries.entrySet());
+            int excess = snapshot.size() - capacity;
+            if (excess <= 0) {
+                return;
+            }
+            snapshot.sort((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess));
+            int evict = Math.min(snapshot.size(), excess + Math.max(1, capacity / EVICT_DIVISOR));
+            for (int i = 0; i < evict; i++) {
+                Map.Entry<CacheKey, Entry> eldest = snapshot.get(i);
+                ledger.entries.remove(eldest.getKey(), eldest.getValue());
+            }
+        } finally {
+            ledger.evicting.set(false);
+        }
+    }
+
+    /**
+     * 复合键为 \u0000类型\u0000状态\u0000ID\u0000，状态变化会换键，因此缓存只按类型和 ID 区分。
+     */
+    private CacheKey toCacheKey(StateWrite write) {
+        String key = write.key();
+        if (!namespace.equals(write.namespace()) || !key.startsWith(KEY_DELIMITER) || !key.endsWith(KEY_DELIMITER)) {
+            return null;
+        }
+        String[] parts = key.substring(1, key.length() - 1).split(KEY_DELIMITER, -1);
+        if (parts.length != 3 || !(REAL_ESTATE.equals(parts[0]) || TRANSACTION.equals(parts[0]))) {
+            return null;
+        }
+        return new CacheKey(parts[0], parts[2]);
+    }
+
+    private static final class LedgerEntries {
+        private final Map<CacheKey, Entry> entries = new ConcurrentHashMap<>();
+        private final AtomicLong generation = new AtomicLong();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+    }
+
+    private record CacheKey(String objectType, String id) {
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long loadedAt;
+        private volatile long lastAccess;
+
+        private Entry(Object value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.togettoyou.fabricrealty.springbootserver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.togettoyou.fabricrealty.springbootserver.block.listener.BlockListenerManager;
+import com.togettoyou.fabricrealty.springbootserver.block.model.StateProjection;
+import com.togettoyou.fabricrealty.springbootserver.block.model.StateRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockLedgerResolver;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.StateProjectionStore;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import com.togettoyou.fabricrealty.springbootserver.config.FabricProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 从本地状态投影读取房产/交易，返回与链码 Query* 相同结构的 JSON。
+ * <p>
+ * 未开启 app.readModelEnabled、投影不完整、数据超出陈旧上限、投影还没追到本机刚提交的区块、记录不存在或书签不是本地格式时返回 empty，
+ * 由调用方回退到 peer 查询。
+ */
+@Service
+public class StateReadModel {
+    private static final Logger log = LoggerFactory.getLogger(StateReadModel.class);
+
+    private static final String REAL_ESTATE = "RE";
+    private static final String TRANSACTION = "TX";
+    private static final String KEY_DELIMITER = "\u0000";
+
+    private final boolean enabled;
+    private final Duration maxStaleness;
+    private final String namespace;
+    private final BlockLedgerResolver ledgerResolver;
+    private final BlockListenerManager listenerManager;
+    private final StateProjectionStore projectionStore;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Long> fences = new ConcurrentHashMap<>();
+
+    public StateReadModel(
+            AppProperties appProperties,
+            FabricProperties fabricProperties,
+            BlockLedgerResolver ledgerResolver,
+            BlockListenerManager listenerManager,
+            StateProjectionStore projectionStore,
+            ObjectMapper objectMapper
+    ) {
+        this.enabled = appProperties.readModelEnabled();
+        this.maxStaleness = Duration.ofSeconds(appProperties.readModelMaxStalenessSeconds());
+        this.namespace = fabricProperties.chaincodeName();
+        this.ledgerResolver = ledgerResolver;
+        this.listenerManager = listenerManager;
+        this.projectionStore = projectionStore;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 投影的高水位达到 {@code blockNum} 之前，该账本的查询都返回 empty。
+     */
+    public void fence(String ledgerKey, long blockNum) {
+        fences.merge(ledgerKey, blockNum, Math::max);
+    }
+
+    public Optional<byte[]> findRealEstate(String orgName, String id) {
+        return find(orgName, REAL_ESTATE, id);
+    }
+
+    public Optional<byte[]> findTransaction(String orgName, String txId) {
+        return find(orgName, TRANSACTION, txId);
+    }
+
+    public Optional<byte[]> listRealEstates(String orgName, int pageSize, String bookmark, String status) {
+        return list(orgName, REAL_ESTATE, pageSize, bookmark, status);
+    }
+
+    public Optional<byte[]> listTransactions(String orgName, int pageSize, String bookmark, String status) {
+        return list(orgName, TRANSACTION, pageSize, bookmark, status);
+    }
+
+    private Optional<byte[]> find(String orgName, String objectType, String id) {
+        Optional<String> ledgerKey = readableLedger(orgName);
+        if (ledgerKey.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return projectionStore.findValue(ledgerKey.get(), namespace, objectType, id);
+        } catch (Exception e) {
+            log.warn("State read model query failed, falling back to peer: org={}, error={}", orgName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 分页语义与 LevelDB 上的 GetStateByPartialCompositeKeyWithPagination 一致：书签是下一页的起始复合键（包含），为空表示没有更多数据。
+     */
+    private Optional<byte[]> list(String orgName, String objectType, int pageSize, String bookmark, String status) {
+        String prefix = KEY_DELIMITER + objectType + KEY_DELIMITER + (status.isEmpty() ? "" : status + KEY_DELIMITER);
+        if (pageSize <= 0 || (!bookmark.isEmpty() && !bookmark.startsWith(prefix))) {
+            return Optional.empty();
+        }
+        Optional<String> ledgerKey = readableLedger(orgName);
+        if (ledgerKey.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            String startKey = bookmark.isEmpty() ? prefix : bookmark;
+            List<StateRecord> rows = projectionStore.findRange(ledgerKey.get(), namespace, startKey, prefix + "\uFFFF", pageSize + 1);
+            List<StateRecord> page = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+
+            ObjectNode result = objectMapper.createObjectNode();
+            ArrayNode records = result.putArray("records");
+            for (StateRecord row : page) {
+                records.add(objectMapper.readTree(row.value()));
+            }
+            result.put("recordsCount", page.size());
+            result.put("bookmark", rows.size() > pageSize ? rows.get(pageSize).compositeKey() : "");
+            result.put("fetchedRecordsCount", page.size());
+            return Optional.of(objectMapper.writeValueAsBytes(result));
+        } catch (Exception e) {
+            log.warn("State read model query failed, falling back to peer: org={}, error={}", orgName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<String> readableLedger(String orgName) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String ledgerKey = ledgerResolver.ledgerKey(orgName);
+        Optional<StateProjection> projection = projectionStore.findProjection(ledgerKey);
+        if (projection.isEmpty() || !projection.get().complete() || !listenerManager.isFresh(ledgerKey, maxStaleness)) {
+            return Optional.empty();
+        }
+        Long fence = fences.get(ledgerKey);
+        if (fence != null) {
+            if (projection.get().highWaterBlock() < fence) {
+                return Optional.empty();
+            }
+            fences.remove(ledgerKey, fence);
+        }
+        return Optional.of(ledgerKey);
+    }
+}
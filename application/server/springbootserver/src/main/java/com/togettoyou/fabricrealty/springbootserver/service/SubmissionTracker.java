@@ -0,0 +1,253 @@
+package com.togettoyou.fabricrealty.springbootserver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.togettoyou.fabricrealty.springbootserver.api.dto.SubmissionDto;
+import com.togettoyou.fabricrealty.springbootserver.block.listener.BlockIngestionSink;
+import com.togettoyou.fabricrealty.springbootserver.block.listener.BlockListenerManager;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockTransactionRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockLedgerResolver;
+import com.togettoyou.fabricrealty.springbootserver.common.ApiException;
+import com.togettoyou.fabricrealty.springbootserver.common.TaskExecutors;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import com.togettoyou.fabricrealty.springbootserver.fabric.FabricCommitStatus;
+import com.togettoyou.fabricrealty.springbootserver.fabric.FabricErrorTranslator;
+import com.togettoyou.fabricrealty.springbootserver.fabric.FabricSubmission;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步提交的交易在后台等待上链确认，记录最近 {@code app.submissionHistorySize} 笔的状态。
+ * <p>
+ * 背书和发往排序节点在 fabric-submit- 线程上完成，请求线程不阻塞；在途交易只登记在按交易 ID 索引的表里，不占线程。区块采集落库后按交易 ID 匹配，
+ * 直接得到所在区块号和校验结果；登记超过 {@value #EVENT_GRACE_SECONDS} 秒仍未匹配、或该账本区块监听不实时的交易，
+ * 交给固定 {@value #FALLBACK_THREADS} 个线程向 peer 查询提交状态（fabric.deadlines.default.commitStatus，默认最长 1 分钟），线程占满时留到下一轮。
+ * <p>
+ * 完成后若配置了 {@code app.submitWebhookUrl} 则把最终状态 POST 过去。
+ */
+@Service
+@Order(400)
+public class SubmissionTracker implements BlockIngestionSink {
+    private static final Logger log = LoggerFactory.getLogger(SubmissionTracker.class);
+
+    private static final String PENDING = "PENDING";
+    private static final String COMMITTED = "COMMITTED";
+    private static final String FAILED = "FAILED";
+    private static final long EVENT_GRACE_SECONDS = 10;
+    private static final int FALLBACK_THREADS = 16;
+
+    private final ObjectMapper objectMapper;
+    private final StateQueryCache queryCache;
+    private final BlockLedgerResolver ledgerResolver;
+    private final BlockListenerManager listenerManager;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+    private final ExecutorService waiters;
+    private final Map<String, SubmissionDto> submissions;
+    private final URI webhook;
+    private final HttpClient httpClient;
+
+    public SubmissionTracker(
+            ObjectMapper objectMapper,
+            StateQueryCache queryCache,
+            BlockLedgerResolver ledgerResolver,
+            BlockListenerManager listenerManager,
+            AppProperties appProperties
+    ) {
+        this.objectMapper = objectMapper;
+        this.queryCache = queryCache;
+        this.ledgerResolver = ledgerResolver;
+        this.listenerManager = listenerManager;
+        this.waiters = TaskExecutors.newBoundedExecutor("submit-commit-", FALLBACK_THREADS);
+        this.sweeper = TaskExecutors.newScheduledExecutor("submit-commit-sweeper");
+        sweeper.scheduleWithFixedDelay(this::sweep, 1, 1, TimeUnit.SECONDS);
+        int capacity = appProperties.submissionHistorySize();
+        this.submissions = new LinkedHashMap<>(Math.min(capacity, 1024)) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SubmissionDto> eldest) {
+                return size() > capacity;
+            }
+        };
+        String webhookUrl = appProperties.submitWebhookUrl();
+        this.webhook = webhookUrl == null || webhookUrl.isBlank() ? null : URI.create(webhookUrl.trim());
+        this.httpClient = webhook == null ? null : HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    /**
+     * 登记一笔已发往排序节点的交易，返回 PENDING 状态。
+     */
+    public SubmissionDto track(String orgName, String transactionName, FabricSubmission submission) {
+        SubmissionDto pending = new SubmissionDto(
+                submission.transactionId(),
+                transactionName,
+                PENDING,
+                null,
+                null,
+                null,
+                OffsetDateTime.now(ZoneOffset.UTC),
+                null
+        );
+        put(pending);
+        this.pending.put(pending.txId(), new Pending(orgName, ledgerResolver.ledgerKey(orgName), pending, submission, System.nanoTime()));
+        return pending;
+    }
+
+    public SubmissionDto find(String txId) {
+        SubmissionDto submission;
+        synchronized (submissions) {
+            submission = submissions.get(txId);
+        }
+        if (submission == null) {
+            throw new ApiException(404, "提交记录不存在或已过期：" + txId);
+        }
+        return submission;
+    }
+
+    /**
+     * 落库的区块里出现在途交易时直接完成，不再向 peer 查询。
+     */
+    @Override
+    public void afterCommit(String ledgerKey, List<IngestedBlock> blocks) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (IngestedBlock block : blocks) {
+            for (BlockTransactionRecord tx : block.transactions()) {
+                Pending entry = pending.get(tx.txId());
+                if (entry == null || !entry.ledgerKey().equals(ledgerKey) || !pending.remove(tx.txId(), entry)) {
+                    continue;
+                }
+                finish(entry.orgName(), committed(entry.submission(), tx.valid(), tx.validationCode(), tx.blockNum()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+        waiters.shutdownNow();
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        long graceNanos = TimeUnit.SECONDS.toNanos(EVENT_GRACE_SECONDS);
+        Duration maxStaleness = Duration.ofSeconds(EVENT_GRACE_SECONDS);
+        for (Pending entry : pending.values()) {
+            if (now - entry.trackedAt() < graceNanos && listenerManager.isFresh(entry.ledgerKey(), maxStaleness)) {
+                continue;
+            }
+            if (!pending.remove(entry.submission().txId(), entry)) {
+                continue;
+            }
+            try {
+                waiters.execute(() -> awaitCommit(entry));
+            } catch (RejectedExecutionException e) {
+                pending.put(entry.submission().txId(), entry);
+                return;
+            }
+        }
+    }
+
+    private void awaitCommit(Pending entry) {
+        SubmissionDto pending = entry.submission();
+        SubmissionDto finished;
+        try {
+            FabricCommitStatus status = entry.fabricSubmission().awaitCommit();
+            finished = committed(pending, status.successful(), status.validationCode(), status.blockNum());
+        } catch (Exception e) {
+            finished = new SubmissionDto(
+                    pending.txId(),
+                    pending.function(),
+                    FAILED,
+                    null,
+                    null,
+                    "等待交易上链失败：" + FabricErrorTranslator.toUserMessage(e),
+                    pending.submitTime(),
+                    OffsetDateTime.now(ZoneOffset.UTC)
+            );
+        }
+        finish(entry.orgName(), finished);
+    }
+
+    private static SubmissionDto committed(SubmissionDto pending, boolean successful, String validationCode, long blockNum) {
+        return new SubmissionDto(
+                pending.txId(),
+                pending.function(),
+                successful ? COMMITTED : FAILED,
+                validationCode,
+                blockNum,
+                successful ? null : "交易校验失败：" + validationCode,
+                pending.submitTime(),
+                OffsetDateTime.now(ZoneOffset.UTC)
+        );
+    }
+
+    private void finish(String orgName, SubmissionDto finished) {
+        if (COMMITTED.equals(finished.status())) {
+            queryCache.localCommit(orgName, finished.blockNum());
+        }
+        put(finished);
+        if (!COMMITTED.equals(finished.status())) {
+            log.warn("Async transaction not committed: txId={}, function={}, message={}",
+                    finished.txId(), finished.function(), finished.message());
+        }
+        notifyWebhook(finished);
+    }
+
+    private void put(SubmissionDto submission) {
+        synchronized (submissions) {
+            submissions.put(submission.txId(), submission);
+        }
+    }
+
+    private void notifyWebhook(SubmissionDto submission) {
+        if (webhook == null) {
+            return;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(webhook)
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(submission)))
+                    .build();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            log.warn("Submission webhook failed: txId={}, error={}", submission.txId(), error.getMessage());
+                        } else if (response.statusCode() >= 300) {
+                            log.warn("Submission webhook rejected: txId={}, status={}", submission.txId(), response.statusCode());
+                        }
+                    });
+        } catch (Exception e) {
+            log.warn("Submission webhook failed: txId={}, error={}", submission.txId(), e.getMessage());
+        }
+    }
+
+    private record Pending(
+            String orgName,
+            String ledgerKey,
+            SubmissionDto submission,
+            FabricSubmission fabricSubmission,
+            long trackedAt
+    ) {
+    }
+}
@@ -2,100 +2,102 @@ package com.togettoyou.fabricrealty.springbootserver.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.togettoyou.fabricrealty.springbootserver.api.dto.BlockQueryResultDto;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.CreateTransactionRequest;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.QueryResultDto;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.RealEstateDto;
+import com.togettoyou.fabricrealty.springbootserver.api.dto.SubmissionDto;
 import com.togettoyou.fabricrealty.springbootserver.api.dto.TransactionDto;
-import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorage;
-import com.togettoyou.fabricrealty.springbootserver.common.ApiException;
 import com.togettoyou.fabricrealty.springbootserver.fabric.FabricClient;
-import com.togettoyou.fabricrealty.springbootserver.fabric.FabricErrorTranslator;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.Locale;
 
 @Service
 public class TradingPlatformService {
-    private static final String TRADE_ORG = "org3";
+    public static final String TRADE_ORG = "org3";
 
     private final FabricClient fabricClient;
     private final ObjectMapper objectMapper;
-    private final BlockStorage blockStorage;
+    private final StateReadModel readModel;
+    private final SubmissionTracker submissionTracker;
+    private final StateQueryCache queryCache;
 
-    public TradingPlatformService(FabricClient fabricClient, ObjectMapper objectMapper, BlockStorage blockStorage) {
+    public TradingPlatformService(
+            FabricClient fabricClient,
+            ObjectMapper objectMapper,
+            StateReadModel readModel,
+            SubmissionTracker submissionTracker,
+            StateQueryCache queryCache
+    ) {
         this.fabricClient = fabricClient;
         this.objectMapper = objectMapper;
-        this.blockStorage = blockStorage;
+        this.readModel = readModel;
+        this.submissionTracker = submissionTracker;
+        this.queryCache = queryCache;
     }
 
-    public void createTransaction(CreateTransactionRequest request) {
+    public CompletableFuture<Void> createTransaction(CreateTransactionRequest request) {
+        return FabricCalls.write(
+                () -> fabricClient.submitAsync(TRADE_ORG, "CreateTransaction", createTransactionArgs(request)),
+                "生成交易失败："
+        ).thenAccept(status -> queryCache.localCommit(TRADE_ORG, status.blockNum()));
+    }
+
+    /**
+     * 发往排序节点后立即返回交易 ID，上链结果由 SubmissionTracker 在后台跟踪。
+     */
+    public CompletableFuture<SubmissionDto> createTransactionAsync(CreateTransactionRequest request) {
+        return FabricCalls.write(
+                () -> fabricClient.beginSubmitAsync(TRADE_ORG, "CreateTransaction", createTransactionArgs(request)),
+                "生成交易失败："
+        ).thenApply(submission -> submissionTracker.track(TRADE_ORG, "CreateTransaction", submission));
+    }
+
+    private static String[] createTransactionArgs(CreateTransactionRequest request) {
         String txId = request.txId() == null ? "" : request.txId();
         String realEstateId = request.realEstateId() == null ? "" : request.realEstateId();
         String seller = request.seller() == null ? "" : request.seller();
         String buyer = request.buyer() == null ? "" : request.buyer();
         double price = request.price() == null ? 0.0 : request.price();
         String now = OffsetDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
-
-        try {
-            fabricClient.submit(
-                    TRADE_ORG,
-                    "CreateTransaction",
-                    txId,
-                    realEstateId,
-                    seller,
-                    buyer,
-                    String.format(Locale.ROOT, "%f", price),
-                    now
-            );
-        } catch (Exception e) {
-            throw new ApiException(500, "生成交易失败：" + FabricErrorTranslator.toUserMessage(e));
-        }
-    }
-
-    public RealEstateDto queryRealEstate(String id) {
-        try {
-            byte[] result = fabricClient.evaluate(TRADE_ORG, "QueryRealEstate", id);
-            return objectMapper.readValue(result, RealEstateDto.class);
-        } catch (Exception e) {
-            throw new ApiException(500, "查询房产信息失败：" + FabricErrorTranslator.toUserMessage(e));
-        }
+        return new String[]{txId, realEstateId, seller, buyer, String.format(Locale.ROOT, "%f", price), now};
     }
 
-    public TransactionDto queryTransaction(String txId) {
-        try {
-            byte[] result = fabricClient.evaluate(TRADE_ORG, "QueryTransaction", txId);
-            return objectMapper.readValue(result, TransactionDto.class);
-        } catch (Exception e) {
-            throw new ApiException(500, "查询交易信息失败：" + FabricErrorTranslator.toUserMessage(e));
-        }
+    public CompletableFuture<RealEstateDto> queryRealEstate(String id) {
+        return queryCache.get(TRADE_ORG, StateQueryCache.REAL_ESTATE, id, () -> FabricCalls.read(
+                () -> readModel.findRealEstate(TRADE_ORG, id),
+                () -> fabricClient.evaluateAsync(TRADE_ORG, "QueryRealEstate", id),
+                result -> objectMapper.readValue(result, RealEstateDto.class),
+                "查询房产信息失败："
+        ));
     }
 
-    public QueryResultDto<TransactionDto> queryTransactionList(int pageSize, String bookmark, String status) {
-        try {
-            byte[] result = fabricClient.evaluate(
-                    TRADE_ORG,
-                    "QueryTransactionList",
-                    String.valueOf(pageSize),
-                    bookmark,
-                    status
-            );
-            return objectMapper.readValue(result, new TypeReference<>() {
-            });
-        } catch (Exception e) {
-            throw new ApiException(500, "查询交易列表失败：" + FabricErrorTranslator.toUserMessage(e));
-        }
+    public CompletableFuture<TransactionDto> queryTransaction(String txId) {
+        return queryCache.get(TRADE_ORG, StateQueryCache.TRANSACTION, txId, () -> FabricCalls.read(
+                () -> readModel.findTransaction(TRADE_ORG, txId),
+                () -> fabricClient.evaluateAsync(TRADE_ORG, "QueryTransaction", txId),
+                result -> objectMapper.readValue(result, TransactionDto.class),
+                "查询交易信息失败："
+        ));
     }
 
-    public BlockQueryResultDto queryBlockList(int pageSize, int pageNum) {
-        try {
-            return blockStorage.queryBlocks(TRADE_ORG, pageSize, pageNum);
-        } catch (Exception e) {
-            throw new ApiException(500, "查询区块列表失败：" + e.getMessage());
-        }
+    public CompletableFuture<QueryResultDto<TransactionDto>> queryTransactionList(int pageSize, String bookmark, String status) {
+        return FabricCalls.read(
+                () -> readModel.listTransactions(TRADE_ORG, pageSize, bookmark, status),
+                () -> fabricClient.evaluateAsync(
+                        TRADE_ORG,
+                        "QueryTransactionList",
+                        String.valueOf(pageSize),
+                        bookmark,
+                        status
+                ),
+                result -> objectMapper.readValue(result, new TypeReference<QueryResultDto<TransactionDto>>() {
+                }),
+                "查询交易列表失败："
+        );
     }
 }
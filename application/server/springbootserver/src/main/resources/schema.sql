@@ -1,3 +1,4 @@
+-- org_name 列存放账本键（BlockLedgerResolver）：共享同一通道的组织只存一份，值为通道名
 CREATE TABLE IF NOT EXISTS blocks (
     org_name VARCHAR(64) NOT NULL,
     block_num BIGINT NOT NULL,
@@ -16,3 +17,64 @@ CREATE TABLE IF NOT EXISTS latest_blocks (
     block_num BIGINT NOT NULL,
     save_time TIMESTAMP WITH TIME ZONE NOT NULL
 );
+
+CREATE TABLE IF NOT EXISTS block_backfill_segments (
+    org_name VARCHAR(64) NOT NULL,
+    start_block BIGINT NOT NULL,
+    end_block BIGINT NOT NULL,
+    next_block BIGINT NOT NULL,
+    PRIMARY KEY (org_name, start_block)
+);
+
+CREATE TABLE IF NOT EXISTS block_transactions (
+    org_name VARCHAR(64) NOT NULL,
+    block_num BIGINT NOT NULL,
+    tx_index INT NOT NULL,
+    tx_id VARCHAR(128) NOT NULL,
+    chaincode_name VARCHAR(128) NOT NULL,
+    function_name VARCHAR(128) NOT NULL,
+    validation_code VARCHAR(64) NOT NULL,
+    tx_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (org_name, block_num, tx_index)
+);
+
+CREATE INDEX IF NOT EXISTS idx_block_transactions_txid ON block_transactions (org_name, tx_id);
+
+CREATE TABLE IF NOT EXISTS state_records (
+    org_name VARCHAR(64) NOT NULL,
+    namespace VARCHAR(128) NOT NULL,
+    composite_key VARCHAR(512) NOT NULL,
+    object_type VARCHAR(16) NOT NULL,
+    status VARCHAR(64) NOT NULL,
+    object_id VARCHAR(256) NOT NULL,
+    state_value VARBINARY,
+    deleted BOOLEAN NOT NULL,
+    block_num BIGINT NOT NULL,
+    tx_index INT NOT NULL,
+    PRIMARY KEY (org_name, namespace, composite_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_state_records_object ON state_records (org_name, namespace, object_type, object_id);
+
+CREATE TABLE IF NOT EXISTS state_projections (
+    org_name VARCHAR(64) PRIMARY KEY,
+    complete BOOLEAN NOT NULL,
+    high_water_block BIGINT NOT NULL,
+    update_time TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS chain_checkpoints (
+    org_name VARCHAR(64) PRIMARY KEY,
+    verified_through BIGINT NOT NULL,
+    block_hash VARCHAR(128) NOT NULL,
+    update_time TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS chain_issues (
+    org_name VARCHAR(64) NOT NULL,
+    block_num BIGINT NOT NULL,
+    issue_type VARCHAR(32) NOT NULL,
+    detail VARCHAR(512) NOT NULL,
+    detect_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (org_name, block_num, issue_type)
+);
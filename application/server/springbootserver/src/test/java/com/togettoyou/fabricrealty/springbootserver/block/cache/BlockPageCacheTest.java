@@ -0,0 +1,100 @@
+package com.togettoyou.fabricrealty.springbootserver.block.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorage;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.LatestBlockRegistry;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BlockPageCacheTest {
+    private static final String LEDGER = "mychannel";
+
+    private final BlockStorage blockStorage = mock(BlockStorage.class);
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final List<BlockRecord> stored = new ArrayList<>();
+
+    @Test
+    void splicesCommittedBlocksWithoutReadingStorage() throws IOException {
+        BlockPageCache cache = cache();
+        commitToStorage(0, 25);
+        assertThat(blockNums(cache.page(LEDGER, 10, 1).json())).containsExactly(24L, 23L, 22L, 21L, 20L, 19L, 18L, 17L, 16L, 15L);
+        clearInvocations(blockStorage);
+
+        List<BlockRecord> committed = commitToStorage(25, 2);
+        cache.onBlocksCommitted(LEDGER, 26, committed);
+
+        assertThat(blockNums(cache.page(LEDGER, 10, 1).json())).containsExactly(26L, 25L, 24L, 23L, 22L, 21L, 20L, 19L, 18L, 17L);
+        assertThat(blockNums(cache.page(LEDGER, 10, 2).json())).startsWith(16L).endsWith(7L);
+        verify(blockStorage, never()).findBlocks(eq(LEDGER), anyLong(), anyLong());
+    }
+
+    @Test
+    void replacesCachedFragmentOfRewrittenBlock() throws IOException {
+        BlockPageCache cache = cache();
+        commitToStorage(0, 5);
+        cache.page(LEDGER, 10, 1);
+
+        BlockRecord rewritten = record(4, "ff");
+        stored.set(4, rewritten);
+        cache.onBlocksCommitted(LEDGER, 4, List.of(rewritten));
+
+        JsonNode first = objectMapper.readTree(cache.page(LEDGER, 10, 1).json()).path("data").path("blocks").get(0);
+        assertThat(first.path("block_hash").asText()).isEqualTo("ff");
+    }
+
+    private BlockPageCache cache() {
+        AppProperties appProperties = mock(AppProperties.class);
+        when(appProperties.blockPageCachePages()).thenReturn(3);
+        when(appProperties.blockFragmentCacheSize()).thenReturn(100);
+        when(blockStorage.getLatestBlockNum(LEDGER)).thenAnswer(invocation ->
+                stored.isEmpty() ? OptionalLong.empty() : OptionalLong.of(stored.size() - 1));
+        when(blockStorage.findBlocks(eq(LEDGER), anyLong(), anyLong())).thenAnswer(invocation -> {
+            long from = invocation.getArgument(1);
+            long to = invocation.getArgument(2);
+            return List.copyOf(stored.subList((int) from, (int) Math.min(to + 1, stored.size())));
+        });
+        return new BlockPageCache(blockStorage, objectMapper, appProperties, mock(LatestBlockRegistry.class));
+    }
+
+    private List<BlockRecord> commitToStorage(long from, int count) {
+        List<BlockRecord> committed = new ArrayList<>();
+        for (long blockNum = from; blockNum < from + count; blockNum++) {
+            BlockRecord record = record(blockNum, "h" + blockNum);
+            stored.add(record);
+            committed.add(record);
+        }
+        return committed;
+    }
+
+    private List<Long> blockNums(byte[] json) throws IOException {
+        List<Long> blockNums = new ArrayList<>();
+        for (JsonNode block : objectMapper.readTree(json).path("data").path("blocks")) {
+            blockNums.add(block.path("block_num").asLong());
+        }
+        return blockNums;
+    }
+
+    private static BlockRecord record(long blockNum, String hash) {
+        return new BlockRecord(blockNum, hash, "d" + blockNum, "p" + blockNum, 1,
+                OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).plusSeconds(blockNum));
+    }
+}
@@ -0,0 +1,133 @@
+package com.togettoyou.fabricrealty.springbootserver.block.listener;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorageException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class BlockBatchWriterTest {
+    private static final String LEDGER = "mychannel";
+
+    private final BlockPersister persister = mock(BlockPersister.class);
+    private final List<List<Long>> batches = new ArrayList<>();
+    private BlockBatchWriter writer;
+    private Thread writerThread;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (writer != null) {
+            writer.close();
+        }
+        if (writerThread != null) {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Test
+    void persistsQueuedBlocksInOrderedBatches() throws InterruptedException {
+        doAnswer(invocation -> {
+            List<IngestedBlock> batch = invocation.getArgument(1);
+            synchronized (batches) {
+                batches.add(batch.stream().map(block -> block.record().blockNum()).toList());
+            }
+            return null;
+        }).when(persister).persist(eq(LEDGER), anyList());
+        start(3);
+
+        for (long blockNum = 0; blockNum < 7; blockNum++) {
+            writer.put(block(blockNum));
+        }
+        writer.awaitDrained();
+
+        List<Long> persisted = new ArrayList<>();
+        synchronized (batches) {
+            for (List<Long> batch : batches) {
+                assertThat(batch).hasSizeLessThanOrEqualTo(3);
+                persisted.addAll(batch);
+            }
+        }
+        assertThat(persisted).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(writer.healthy()).isTrue();
+    }
+
+    @Test
+    void discardsQueuedBlocksAfterFailedBatchUntilDrained() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            throw new IllegalStateException("disk full");
+        }).when(persister).persist(eq(LEDGER), anyList());
+        start(1);
+
+        writer.put(block(0));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.put(block(1));
+        writer.put(block(2));
+        release.countDown();
+        awaitUnhealthy();
+
+        // 失败批次之后不能越过它继续写
+        assertThatThrownBy(() -> writer.put(block(3)))
+                .isInstanceOf(BlockStorageException.class)
+                .hasMessageContaining("disk full");
+
+        writer.awaitDrained();
+        verify(persister, times(1)).persist(eq(LEDGER), anyList());
+        assertThat(writer.healthy()).isTrue();
+    }
+
+    @Test
+    void closeReleasesDrainWaiters() throws InterruptedException {
+        writer = new BlockBatchWriter(LEDGER, persister, 10, Duration.ofMillis(10), 16);
+        writer.put(block(0));
+
+        Thread waiter = new Thread(() -> {
+            try {
+                writer.awaitDrained();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        writer.close();
+        waiter.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertThat(waiter.isAlive()).isFalse();
+    }
+
+    private void start(int batchSize) {
+        writer = new BlockBatchWriter(LEDGER, persister, batchSize, Duration.ofMillis(20), 16);
+        writerThread = new Thread(writer, "block-writer-test");
+        writerThread.start();
+    }
+
+    private void awaitUnhealthy() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.healthy() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(writer.healthy()).isFalse();
+    }
+
+    private static IngestedBlock block(long blockNum) {
+        return new IngestedBlock(new BlockRecord(blockNum, "", "", "", 0, null), List.of(), null);
+    }
+}
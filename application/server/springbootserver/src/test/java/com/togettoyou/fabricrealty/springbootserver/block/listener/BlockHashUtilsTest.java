@@ -0,0 +1,124 @@
+package com.togettoyou.fabricrealty.springbootserver.block.listener;
+
+import com.google.protobuf.ByteString;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BlockHashUtilsTest {
+    private static final HexFormat HEX = HexFormat.of();
+    private static final long[] BLOCK_NUMBERS = {0, 1, 127, 128, 255, 256, 32767, 32768, 65535, 1L << 31, Long.MAX_VALUE};
+    private static final int[] HASH_LENGTHS = {0, 1, 32, 127, 128, 300};
+
+    @Test
+    void matchesKnownHeaderHashes() {
+        assertThat(BlockHashUtils.sha256BlockHeaderHash(1, filled(32, 0xAA), filled(32, 0xBB)))
+                .isEqualTo("9e22a9e795ef76a52cca4c08657a814f77660f9a9572a9a1b5d2a2b6c2d1674e");
+        assertThat(BlockHashUtils.sha256BlockHeaderHash(0, new byte[0], filled(32, 0x01)))
+                .isEqualTo("34028f2d794dde3d3b2f0125dce6ec3e3140bb32afa4f93097cf1cc890380dc7");
+    }
+
+    @Test
+    void matchesReferenceDerEncoding() throws Exception {
+        for (long blockNum : BLOCK_NUMBERS) {
+            for (int length : HASH_LENGTHS) {
+                byte[] previousHash = filled(length, 0x5A);
+                byte[] dataHash = filled(32, (int) blockNum);
+                String expected = HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(der(blockNum, previousHash, dataHash)));
+
+                assertThat(BlockHashUtils.sha256BlockHeaderHash(blockNum, previousHash, dataHash))
+                        .as("block %d, previousHash %d bytes", blockNum, length)
+                        .isEqualTo(expected);
+                assertThat(BlockHashUtils.sha256BlockHeaderHash(blockNum, ByteString.copyFrom(previousHash), ByteString.copyFrom(dataHash)))
+                        .isEqualTo(expected);
+                assertThat(BlockHashUtils.matchesBlockHeaderHash(blockNum, HEX.formatHex(previousHash), HEX.formatHex(dataHash), expected))
+                        .isTrue();
+            }
+        }
+    }
+
+    @Test
+    void treatsNullHashesAsEmpty() {
+        assertThat(BlockHashUtils.sha256BlockHeaderHash(5, (byte[]) null, null))
+                .isEqualTo(BlockHashUtils.sha256BlockHeaderHash(5, new byte[0], new byte[0]));
+        assertThat(BlockHashUtils.sha256BlockHeaderHash(5, (ByteString) null, null))
+                .isEqualTo(BlockHashUtils.sha256BlockHeaderHash(5, ByteString.EMPTY, ByteString.EMPTY));
+    }
+
+    @Test
+    void comparesStoredHashesCaseInsensitively() {
+        byte[] previousHash = filled(32, 0x10);
+        byte[] dataHash = filled(32, 0x20);
+        String hash = BlockHashUtils.sha256BlockHeaderHash(42, previousHash, dataHash);
+
+        assertThat(BlockHashUtils.matchesBlockHeaderHash(42, HEX.formatHex(previousHash).toUpperCase(), HEX.formatHex(dataHash), hash.toUpperCase()))
+                .isTrue();
+        assertThat(BlockHashUtils.matchesBlockHeaderHash(43, HEX.formatHex(previousHash), HEX.formatHex(dataHash), hash)).isFalse();
+        assertThat(BlockHashUtils.matchesBlockHeaderHash(42, HEX.formatHex(previousHash), HEX.formatHex(dataHash), hash.substring(2)))
+                .isFalse();
+        assertThat(BlockHashUtils.matchesBlockHeaderHash(42, HEX.formatHex(previousHash), HEX.formatHex(dataHash), null)).isFalse();
+    }
+
+    @Test
+    void rejectsMalformedHex() {
+        assertThatThrownBy(() -> BlockHashUtils.matchesBlockHeaderHash(1, "abc", "", ""))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BlockHashUtils.matchesBlockHeaderHash(1, "zz", "", ""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void matchesBatchOfRecords() {
+        byte[] dataHash = filled(32, 0x33);
+        String genesis = BlockHashUtils.sha256BlockHeaderHash(0, new byte[0], dataHash);
+        String next = BlockHashUtils.sha256BlockHeaderHash(1, HEX.parseHex(genesis), dataHash);
+        List<BlockRecord> records = List.of(
+                new BlockRecord(0, genesis, HEX.formatHex(dataHash), "", 1, null),
+                new BlockRecord(1, next, HEX.formatHex(dataHash), genesis, 1, null),
+                new BlockRecord(2, next, HEX.formatHex(dataHash), genesis, 1, null)
+        );
+
+        assertThat(BlockHashUtils.matchBlockHeaderHashes(records)).containsExactly(true, true, false);
+    }
+
+    private static byte[] filled(int length, int value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+
+    /**
+     * 按定义直接拼出 DER：SEQUENCE{ INTEGER(number), OCTET STRING(previousHash), OCTET STRING(dataHash) }。
+     */
+    private static byte[] der(long blockNum, byte[] previousHash, byte[] dataHash) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        writeTlv(content, 0x02, BigInteger.valueOf(blockNum).toByteArray());
+        writeTlv(content, 0x04, previousHash);
+        writeTlv(content, 0x04, dataHash);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTlv(out, 0x30, content.toByteArray());
+        return out.toByteArray();
+    }
+
+    private static void writeTlv(ByteArrayOutputStream out, int tag, byte[] value) {
+        out.write(tag);
+        if (value.length < 128) {
+            out.write(value.length);
+        } else {
+            byte[] length = BigInteger.valueOf(value.length).toByteArray();
+            int offset = length[0] == 0 ? 1 : 0;
+            out.write(0x80 | (length.length - offset));
+            out.write(length, offset, length.length - offset);
+        }
+        out.write(value, 0, value.length);
+    }
+}
@@ -0,0 +1,126 @@
+package com.togettoyou.fabricrealty.springbootserver.block.listener;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockBackfillStore;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorage;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BlockPersisterTest {
+    private static final String LEDGER = "mychannel";
+
+    private final BlockStorage blockStorage = mock(BlockStorage.class);
+    private final BlockBackfillStore backfillStore = mock(BlockBackfillStore.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void serializesParallelBackfillBatchesOfOneLedger() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<Long> accepted = new ArrayList<>();
+        BlockIngestionSink sink = new BlockIngestionSink() {
+            @Override
+            public void accept(String ledgerKey, List<IngestedBlock> blocks) {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (accepted) {
+                    blocks.forEach(block -> accepted.add(block.record().blockNum()));
+                }
+                active.decrementAndGet();
+            }
+        };
+        BlockPersister persister = persister(sink);
+
+        int workers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            // 每个 worker 负责一个分段，按批次落库
+            for (int segment = 0; segment < workers; segment++) {
+                long segmentStart = segment * 100L;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (long first = segmentStart; first < segmentStart + 10; first += 2) {
+                        persister.persist(LEDGER, List.of(block(first), block(first + 1)));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(maxActive.get()).isEqualTo(1);
+        assertThat(accepted).hasSize(workers * 10);
+    }
+
+    @Test
+    void advancesBackfillProgressInsideBatchTransaction() {
+        BlockPersister persister = persister(new BackfillProgressRecorder(backfillStore));
+
+        persister.persist(LEDGER, List.of(block(100), block(101), block(102)));
+
+        InOrder order = inOrder(transactionManager, backfillStore, blockStorage);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(backfillStore).advanceProgress(LEDGER, 100, 103);
+        order.verify(blockStorage).saveBlocks(eq(LEDGER), anyList());
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void rollsBackProgressWithFailedBatch() {
+        doThrow(new IllegalStateException("disk full")).when(blockStorage).saveBlocks(eq(LEDGER), anyList());
+        BlockPersister persister = persister(new BackfillProgressRecorder(backfillStore));
+
+        assertThatThrownBy(() -> persister.persist(LEDGER, List.of(block(100))))
+                .hasMessageContaining("disk full");
+
+        verify(backfillStore).advanceProgress(LEDGER, 100, 101);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private BlockPersister persister(BlockIngestionSink... sinks) {
+        ObjectProvider<BlockIngestionSink> provider = mock(ObjectProvider.class);
+        when(provider.orderedStream()).thenAnswer(invocation -> Stream.of(sinks));
+        return new BlockPersister(blockStorage, provider, transactionManager);
+    }
+
+    private static IngestedBlock block(long blockNum) {
+        return new IngestedBlock(new BlockRecord(blockNum, "", "", "", 0, null), List.of(), null);
+    }
+}
@@ -0,0 +1,159 @@
+package com.togettoyou.fabricrealty.springbootserver.block.push;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockStorage;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.LatestBlockRegistry;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class BlockEventHubTest {
+    private static final String LEDGER = "mychannel";
+    private static final int BUFFER_SIZE = 4;
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+    private final BlockStorage blockStorage = mock(BlockStorage.class);
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final List<BlockRecord> stored = new ArrayList<>();
+    private final BlockEventHub hub = hub();
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(hub)).build();
+
+    @AfterEach
+    void stop() {
+        hub.stop();
+    }
+
+    @Test
+    void replaysGapFromStorageAfterLastEventId() throws Exception {
+        store(0, 10);
+
+        MvcResult result = subscribe("6");
+        commit(10, 2);
+
+        awaitEvents(result, 5);
+        assertThat(eventIds(result)).containsExactly(7L, 8L, 9L, 10L, 11L);
+        verify(blockStorage).findBlocks(LEDGER, 7, 9);
+    }
+
+    @Test
+    void resumesFromBufferWithoutReadingStorage() throws Exception {
+        store(0, 10);
+        MvcResult live = subscribe(null);
+        commit(10, 3);
+        awaitEvents(live, 3);
+
+        MvcResult resumed = subscribe("10");
+
+        awaitEvents(resumed, 2);
+        assertThat(eventIds(resumed)).containsExactly(11L, 12L);
+        verify(blockStorage, never()).findBlocks(eq(LEDGER), anyLong(), anyLong());
+    }
+
+    @Test
+    void evictsSubscriberThatFallsBehindBufferAndReplaysOnReconnect() throws Exception {
+        store(0, 10);
+        MvcResult lagging = subscribe(null);
+
+        // 一次提交超过缓冲长度，订阅者的位置已被覆盖
+        commit(10, 10);
+
+        assertThat(lagging.getAsyncResult(5000)).isNull();
+        assertThat(eventIds(lagging)).isEmpty();
+
+        MvcResult reconnected = subscribe("9");
+        awaitEvents(reconnected, 8);
+        // 缺口最多补发一个缓冲长度：存储补 12-15，缓冲发 16-19
+        assertThat(eventIds(reconnected)).containsExactly(12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L);
+    }
+
+    private BlockEventHub hub() {
+        AppProperties appProperties = mock(AppProperties.class);
+        when(appProperties.blockStreamBufferSize()).thenReturn(BUFFER_SIZE);
+        when(appProperties.blockStreamHeartbeatSeconds()).thenReturn(60);
+        when(blockStorage.getLatestBlockNum(LEDGER)).thenAnswer(invocation ->
+                stored.isEmpty() ? OptionalLong.empty() : OptionalLong.of(stored.size() - 1));
+        when(blockStorage.findBlocks(eq(LEDGER), anyLong(), anyLong())).thenAnswer(invocation -> {
+            long from = invocation.getArgument(1);
+            long to = invocation.getArgument(2);
+            return List.copyOf(stored.subList((int) from, (int) Math.min(to + 1, stored.size())));
+        });
+        return new BlockEventHub(blockStorage, objectMapper, appProperties, mock(LatestBlockRegistry.class));
+    }
+
+    private MvcResult subscribe(String lastEventId) throws Exception {
+        return lastEventId == null
+                ? mockMvc.perform(get("/stream")).andReturn()
+                : mockMvc.perform(get("/stream").header("Last-Event-ID", lastEventId)).andReturn();
+    }
+
+    private List<BlockRecord> store(long from, int count) {
+        List<BlockRecord> blocks = LongStream.range(from, from + count)
+                .mapToObj(blockNum -> new BlockRecord(blockNum, "h" + blockNum, "d" + blockNum, "p" + blockNum, 1,
+                        OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).plusSeconds(blockNum)))
+                .toList();
+        stored.addAll(blocks);
+        return blocks;
+    }
+
+    private void commit(long from, int count) {
+        List<BlockRecord> blocks = store(from, count);
+        hub.onBlocksCommitted(LEDGER, from + count - 1, blocks);
+    }
+
+    private static void awaitEvents(MvcResult result, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (eventIds(result).size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<Long> eventIds(MvcResult result) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        Matcher matcher = EVENT_ID.matcher(result.getResponse().getContentAsString());
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    @RestController
+    static class StreamController {
+        private final BlockEventHub hub;
+
+        StreamController(BlockEventHub hub) {
+            this.hub = hub;
+        }
+
+        @GetMapping("/stream")
+        SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+            return hub.subscribe(LEDGER, lastEventId);
+        }
+    }
+}
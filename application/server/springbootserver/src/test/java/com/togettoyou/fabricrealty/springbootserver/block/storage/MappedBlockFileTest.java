@@ -0,0 +1,145 @@
+package com.togettoyou.fabricrealty.springbootserver.block.storage;
+
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedBlockFileTest {
+    private static final int HEADER_BYTES = 128;
+    private static final int SLOT_BYTES = 128;
+    private static final int LATEST_OFFSET = 16;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackWrittenBlocksAfterReopen() throws IOException {
+        Path file = dir.resolve("ledger.slots");
+        List<BlockRecord> blocks = blocks(0, 3);
+        try (MappedBlockFile slots = new MappedBlockFile(file)) {
+            assertThat(slots.latest()).isEqualTo(-1);
+            slots.write(blocks);
+        }
+        try (MappedBlockFile slots = new MappedBlockFile(file)) {
+            assertThat(slots.latest()).isEqualTo(2);
+            assertThat(slots.read(0, 2)).containsExactlyElementsOf(blocks);
+        }
+    }
+
+    @Test
+    void recoversCompleteSlotsWrittenAfterHeader() throws IOException {
+        Path file = dir.resolve("ledger.slots");
+        try (MappedBlockFile slots = new MappedBlockFile(file)) {
+            slots.write(blocks(0, 3));
+        }
+        // 槽位已刷盘、文件头 latest 还没推进时崩溃
+        setHeaderLatest(file, 0);
+
+        try (MappedBlockFile slots = new MappedBlockFile(file)) {
+            assertThat(slots.latest()).isEqualTo(2);
+            assertThat(slots.read(0, 2)).extracting(BlockRecord::blockNum).containsExactly(0L, 1L, 2L);
+        }
+    }
+
+    @Test
+    void clearsTornLastSlot() throws IOException {
+        Path file = dir.resolve("ledger.slots");
+        try (MappedBlockFile slots = new MappedBlockFile(file)) {
+            slots.write(blocks(0, 3));
+        }
+        setHeaderLatest(file, 1);
+        // 最后一个槽位只写了前半部分
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(slotOffset(2) + SLOT_BYTES / 2);
+            raf.write(new byte[SLOT_BYTES / 2]);
+        }
+
+        try (MappedBlockFile slots = new MappedBlockFile(file)) {
+            assertThat(slots.latest()).isEqualTo(1);
+            assertThat(slots.read(0, 2)).extracting(BlockRecord::blockNum).containsExactly(0L, 1L);
+        }
+        assertThat(readSlot(file, 2)).containsOnly((byte) 0);
+
+        try (MappedBlockFile slots = new MappedBlockFile(file)) {
+            slots.write(blocks(2, 1));
+            assertThat(slots.latest()).isEqualTo(2);
+            assertThat(slots.read(2, 2)).containsExactlyElementsOf(blocks(2, 1));
+        }
+    }
+
+    @Test
+    void clearsSlotWithBadChecksum() throws IOException {
+        Path file = dir.resolve("ledger.slots");
+        try (MappedBlockFile slots = new MappedBlockFile(file)) {
+            slots.write(blocks(0, 2));
+        }
+        setHeaderLatest(file, 0);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            long position = slotOffset(1) + 20;
+            raf.seek(position);
+            int value = raf.read();
+            raf.seek(position);
+            raf.write(value ^ 0xFF);
+        }
+
+        try (MappedBlockFile slots = new MappedBlockFile(file)) {
+            assertThat(slots.latest()).isEqualTo(0);
+            assertThat(slots.read(0, 1)).extracting(BlockRecord::blockNum).containsExactly(0L);
+        }
+        assertThat(readSlot(file, 1)).containsOnly((byte) 0);
+    }
+
+    private static List<BlockRecord> blocks(long from, int count) {
+        OffsetDateTime saveTime = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 123_456_789, ZoneOffset.UTC);
+        List<BlockRecord> blocks = new ArrayList<>(count);
+        for (long blockNum = from; blockNum < from + count; blockNum++) {
+            blocks.add(new BlockRecord(
+                    blockNum,
+                    hash(blockNum, 0x11),
+                    hash(blockNum, 0x22),
+                    blockNum == 0 ? "" : hash(blockNum - 1, 0x11),
+                    (int) blockNum + 1,
+                    saveTime.plusSeconds(blockNum)
+            ));
+        }
+        return blocks;
+    }
+
+    private static String hash(long blockNum, int seed) {
+        StringBuilder hex = new StringBuilder();
+        for (int i = 0; i < MappedBlockFile.HASH_BYTES; i++) {
+            hex.append(String.format("%02x", (seed + blockNum * 7 + i) & 0xFF));
+        }
+        return hex.toString();
+    }
+
+    private static long slotOffset(long blockNum) {
+        return HEADER_BYTES + blockNum * SLOT_BYTES;
+    }
+
+    private static void setHeaderLatest(Path file, long latest) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(LATEST_OFFSET);
+            raf.writeLong(latest);
+        }
+    }
+
+    private static byte[] readSlot(Path file, long blockNum) throws IOException {
+        byte[] slot = new byte[SLOT_BYTES];
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            raf.seek(slotOffset(blockNum));
+            raf.readFully(slot);
+        }
+        return slot;
+    }
+}
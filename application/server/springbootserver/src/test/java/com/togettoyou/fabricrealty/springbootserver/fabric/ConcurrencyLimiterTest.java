@@ -0,0 +1,87 @@
+package com.togettoyou.fabricrealty.springbootserver.fabric;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ConcurrencyLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsOnceInflightReachesLimit() {
+        ConcurrencyLimiter limiter = limiter(2, 1, 10);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        assertThat(meterRegistry.get("fabric.limiter.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void increasesWhenBusyAndCompletingNormally() {
+        ConcurrencyLimiter limiter = limiter(4, 1, 10);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        limiter.release(false);
+
+        assertThat(limiter.limit()).isCloseTo(4.25, within(1e-9));
+        assertThat(limiter.inflight()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsLimitWhenMostlyIdle() {
+        ConcurrencyLimiter limiter = limiter(10, 1, 20);
+        limiter.tryAcquire();
+
+        limiter.release(false);
+
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void decreasesOnOverloadDownToMinimum() {
+        ConcurrencyLimiter limiter = limiter(10, 8, 20);
+
+        limiter.tryAcquire();
+        limiter.release(true);
+        assertThat(limiter.limit()).isCloseTo(9, within(1e-9));
+
+        limiter.tryAcquire();
+        limiter.release(true);
+        limiter.tryAcquire();
+        limiter.release(true);
+        assertThat(limiter.limit()).isEqualTo(8);
+    }
+
+    @Test
+    void increaseIsCappedAtMaximum() {
+        ConcurrencyLimiter limiter = limiter(2, 1, 2);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        limiter.release(false);
+
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void cancelledCallReturnsPermitWithoutAdjustingLimit() {
+        ConcurrencyLimiter limiter = limiter(1, 1, 10);
+        limiter.tryAcquire();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.releaseCancelled();
+
+        assertThat(limiter.limit()).isEqualTo(1);
+        assertThat(limiter.inflight()).isZero();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    private ConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit) {
+        return new ConcurrencyLimiter("peer", "org1/peer0", initialLimit, minLimit, maxLimit, meterRegistry);
+    }
+}
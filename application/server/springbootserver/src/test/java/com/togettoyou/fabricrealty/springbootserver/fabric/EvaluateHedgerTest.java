@@ -0,0 +1,135 @@
+package com.togettoyou.fabricrealty.springbootserver.fabric;
+
+import io.grpc.Context;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EvaluateHedgerTest {
+    private static final String ORG = "org1";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EvaluateHedger hedger = new EvaluateHedger(executor, timer, 95, 20, 20, meterRegistry);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    @Test
+    void hedgeWinsAndCancelsSlowPrimary() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch primaryCancelled = new CountDownLatch(1);
+
+        byte[] result = hedger.evaluate(ORG, () -> {
+            if (calls.incrementAndGet() == 1) {
+                awaitCancellation(primaryCancelled);
+                throw new IllegalStateException("cancelled");
+            }
+            return bytes("hedge");
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo(bytes("hedge"));
+        assertThat(primaryCancelled.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(hedgeCount("sent")).isEqualTo(1);
+        assertThat(hedgeCount("won")).isEqualTo(1);
+    }
+
+    @Test
+    void primaryWinsAndCancelsSlowHedge() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch hedgeStarted = new CountDownLatch(1);
+        CountDownLatch hedgeCancelled = new CountDownLatch(1);
+        CountDownLatch releasePrimary = new CountDownLatch(1);
+
+        CompletableFuture<byte[]> future = hedger.evaluate(ORG, () -> {
+            if (calls.incrementAndGet() == 1) {
+                await(releasePrimary);
+                return bytes("primary");
+            }
+            hedgeStarted.countDown();
+            awaitCancellation(hedgeCancelled);
+            throw new IllegalStateException("cancelled");
+        });
+        assertThat(hedgeStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        releasePrimary.countDown();
+
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(bytes("primary"));
+        assertThat(hedgeCancelled.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(hedgeCount("won")).isZero();
+    }
+
+    @Test
+    void fastPrimarySendsNoHedge() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        byte[] result = hedger.evaluate(ORG, () -> {
+            calls.incrementAndGet();
+            return bytes("primary");
+        }).get(5, TimeUnit.SECONDS);
+        Thread.sleep(50);
+
+        assertThat(result).isEqualTo(bytes("primary"));
+        assertThat(calls).hasValue(1);
+        assertThat(hedgeCount("sent")).isZero();
+    }
+
+    @Test
+    void failedPrimaryWaitsForHedge() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch hedgeStarted = new CountDownLatch(1);
+
+        byte[] result = hedger.evaluate(ORG, () -> {
+            if (calls.incrementAndGet() == 1) {
+                await(hedgeStarted);
+                throw new IllegalStateException("peer unavailable");
+            }
+            hedgeStarted.countDown();
+            return bytes("hedge");
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo(bytes("hedge"));
+    }
+
+    private double hedgeCount(String result) {
+        return meterRegistry.get("fabric.evaluate.hedge").tag("result", result).counter().count();
+    }
+
+    /**
+     * 模拟阻塞在 gRPC 上的调用：直到所在 Context 被取消才返回。
+     */
+    private static void awaitCancellation(CountDownLatch cancelled) {
+        Context context = Context.current();
+        context.addListener(ignored -> cancelled.countDown(), Runnable::run);
+        await(cancelled);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,168 @@
+package com.togettoyou.fabricrealty.springbootserver.fabric;
+
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import com.togettoyou.fabricrealty.springbootserver.config.FabricProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 查询合并（single-flight）与本机提交计数：peer 调用由 {@link StubbedClient} 挂起，测试决定何时返回。
+ */
+class FabricGatewayClientTest {
+    private static final String ORG = "org1";
+    private static final String CHANNEL = "mychannel";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StubbedClient client = new StubbedClient(fabricProperties(), appProperties(), meterRegistry);
+
+    @AfterEach
+    void shutdown() {
+        client.shutdown();
+    }
+
+    @Test
+    void coalescesIdenticalInFlightQueries() throws Exception {
+        CompletableFuture<byte[]> first = client.evaluateAsync(ORG, "QueryRealEstate", "R1");
+        CompletableFuture<byte[]> second = client.evaluateAsync(ORG, "QueryRealEstate", "R1");
+        client.awaitCalls(1);
+
+        client.complete(0, "v1");
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(bytes("v1"));
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(bytes("v1"));
+        assertThat(client.calls).hasSize(1);
+        assertThat(requests("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotCoalesceDifferentArguments() throws Exception {
+        client.evaluateAsync(ORG, "QueryRealEstate", "R1");
+        client.evaluateAsync(ORG, "QueryRealEstate", "R2");
+
+        client.awaitCalls(2);
+        assertThat(requests("coalesced")).isZero();
+    }
+
+    @Test
+    void queryAfterLocalCommitDoesNotJoinOlderCall() throws Exception {
+        CompletableFuture<byte[]> beforeCommit = client.evaluateAsync(ORG, "QueryRealEstate", "R1");
+        client.awaitCalls(1);
+
+        client.localCommitted(CHANNEL);
+        CompletableFuture<byte[]> afterCommit = client.evaluateAsync(ORG, "QueryRealEstate", "R1");
+        client.awaitCalls(2);
+        // 提交之后的查询取代了在途表中的旧调用，后来者合并到新调用上
+        CompletableFuture<byte[]> joined = client.evaluateAsync(ORG, "QueryRealEstate", "R1");
+
+        client.complete(0, "stale");
+        client.complete(1, "fresh");
+
+        assertThat(beforeCommit.get(5, TimeUnit.SECONDS)).isEqualTo(bytes("stale"));
+        assertThat(afterCommit.get(5, TimeUnit.SECONDS)).isEqualTo(bytes("fresh"));
+        assertThat(joined.get(5, TimeUnit.SECONDS)).isEqualTo(bytes("fresh"));
+        assertThat(client.calls).hasSize(2);
+    }
+
+    @Test
+    void commitOnOtherChannelKeepsCoalescing() throws Exception {
+        CompletableFuture<byte[]> first = client.evaluateAsync(ORG, "QueryRealEstate", "R1");
+        client.awaitCalls(1);
+
+        client.localCommitted("otherchannel");
+        CompletableFuture<byte[]> second = client.evaluateAsync(ORG, "QueryRealEstate", "R1");
+        client.complete(0, "v1");
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(bytes("v1"));
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(bytes("v1"));
+        assertThat(client.calls).hasSize(1);
+    }
+
+    @Test
+    void completedQueryIsNotReused() throws Exception {
+        CompletableFuture<byte[]> first = client.evaluateAsync(ORG, "QueryRealEstate", "R1");
+        client.awaitCalls(1);
+        client.complete(0, "v1");
+        first.get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<byte[]> second = client.evaluateAsync(ORG, "QueryRealEstate", "R1");
+        client.awaitCalls(2);
+        client.complete(1, "v2");
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(bytes("v2"));
+    }
+
+    @Test
+    void cancellingOneCallerDoesNotCancelSharedCall() throws Exception {
+        CompletableFuture<byte[]> first = client.evaluateAsync(ORG, "QueryRealEstate", "R1");
+        CompletableFuture<byte[]> second = client.evaluateAsync(ORG, "QueryRealEstate", "R1");
+        client.awaitCalls(1);
+
+        first.cancel(true);
+        client.complete(0, "v1");
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(bytes("v1"));
+    }
+
+    private double requests(String source) {
+        return meterRegistry.get("fabric.evaluate.requests").tag("source", source).counter().count();
+    }
+
+    private static FabricProperties fabricProperties() {
+        FabricProperties fabricProperties = mock(FabricProperties.class);
+        when(fabricProperties.channelName()).thenReturn(CHANNEL);
+        when(fabricProperties.chaincodeName()).thenReturn("mychaincode");
+        return fabricProperties;
+    }
+
+    private static AppProperties appProperties() {
+        AppProperties appProperties = mock(AppProperties.class);
+        when(appProperties.fabricCallThreads()).thenReturn(8);
+        when(appProperties.fabricSubmitThreads()).thenReturn(8);
+        return appProperties;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 不连接 peer：每次 evaluate 登记一个待完成的结果并阻塞到测试完成它。
+     */
+    private static final class StubbedClient extends FabricGatewayClient {
+        private final List<CompletableFuture<byte[]>> calls = new CopyOnWriteArrayList<>();
+
+        StubbedClient(FabricProperties fabricProperties, AppProperties appProperties, SimpleMeterRegistry meterRegistry) {
+            super(fabricProperties, appProperties, meterRegistry);
+        }
+
+        @Override
+        public byte[] evaluate(String orgName, ChaincodeRef chaincode, String transactionName, String... args) {
+            CompletableFuture<byte[]> call = new CompletableFuture<>();
+            calls.add(call);
+            return call.join();
+        }
+
+        void awaitCalls(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (calls.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(calls).hasSizeGreaterThanOrEqualTo(count);
+        }
+
+        void complete(int index, String value) {
+            calls.get(index).complete(bytes(value));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.togettoyou.fabricrealty.springbootserver.service;
+
+import com.togettoyou.fabricrealty.springbootserver.block.listener.BlockListenerManager;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.BlockTransactionRecord;
+import com.togettoyou.fabricrealty.springbootserver.block.model.IngestedBlock;
+import com.togettoyou.fabricrealty.springbootserver.block.model.StateWrite;
+import com.togettoyou.fabricrealty.springbootserver.block.storage.BlockLedgerResolver;
+import com.togettoyou.fabricrealty.springbootserver.config.AppProperties;
+import com.togettoyou.fabricrealty.springbootserver.config.FabricProperties;
+import com.togettoyou.fabricrealty.springbootserver.fabric.FabricClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StateQueryCacheTest {
+    private static final String ORG = "org1";
+    private static final String LEDGER = "mychannel";
+    private static final String CHAINCODE = "mychaincode";
+
+    private final StateReadModel readModel = mock(StateReadModel.class);
+    private final FabricClient fabricClient = mock(FabricClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void servesRepeatedQueriesFromCache() {
+        StateQueryCache cache = cache(100);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get(ORG, StateQueryCache.REAL_ESTATE, "R1", () -> load(loads, "v1")).join()).isEqualTo("v1");
+        assertThat(cache.get(ORG, StateQueryCache.REAL_ESTATE, "R1", () -> load(loads, "v2")).join()).isEqualTo("v1");
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("fabric.query.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void localCommitDropsLedgerEntriesAndFencesReadModel() {
+        StateQueryCache cache = cache(100);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(ORG, StateQueryCache.REAL_ESTATE, "R1", () -> load(loads, "v1")).join();
+
+        cache.localCommit(ORG, 42L);
+
+        assertThat(cache.get(ORG, StateQueryCache.REAL_ESTATE, "R1", () -> load(loads, "v2")).join()).isEqualTo("v2");
+        verify(readModel).fence(LEDGER, 42L);
+        verify(fabricClient).localCommitted(LEDGER);
+    }
+
+    @Test
+    void doesNotStoreResultLoadedAcrossGenerationBump() {
+        StateQueryCache cache = cache(100);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<Object> inFlight = new CompletableFuture<>();
+
+        CompletableFuture<Object> stale = cache.get(ORG, StateQueryCache.REAL_ESTATE, "R1", () -> inFlight);
+        cache.localCommit(ORG, null);
+        inFlight.complete("before-commit");
+
+        assertThat(stale.join()).isEqualTo("before-commit");
+        assertThat(cache.get(ORG, StateQueryCache.REAL_ESTATE, "R1", () -> load(loads, "after-commit")).join())
+                .isEqualTo("after-commit");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void committedWriteInvalidatesOnlyWrittenKey() {
+        StateQueryCache cache = cache(100);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(ORG, StateQueryCache.REAL_ESTATE, "R1", () -> load(loads, "r1")).join();
+        cache.get(ORG, StateQueryCache.TRANSACTION, "T1", () -> load(loads, "t1")).join();
+
+        cache.afterCommit(LEDGER, List.of(blockWriting("\u0000RE\u0000NORMAL\u0000R1\u0000")));
+
+        assertThat(cache.get(ORG, StateQueryCache.REAL_ESTATE, "R1", () -> load(loads, "r1-new")).join()).isEqualTo("r1-new");
+        assertThat(cache.get(ORG, StateQueryCache.TRANSACTION, "T1", () -> load(loads, "t1-new")).join()).isEqualTo("t1");
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesWhenFull() throws InterruptedException {
+        StateQueryCache cache = cache(10);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            cache.get(ORG, StateQueryCache.REAL_ESTATE, "R" + i, () -> load(loads, "v")).join();
+        }
+        Thread.sleep(1);
+        // R0 最近访问过，淘汰时应保留
+        cache.get(ORG, StateQueryCache.REAL_ESTATE, "R0", () -> load(loads, "reloaded")).join();
+        cache.get(ORG, StateQueryCache.REAL_ESTATE, "R10", () -> load(loads, "v")).join();
+
+        assertThat(meterRegistry.get("fabric.query.cache.size").gauge().value()).isLessThanOrEqualTo(10);
+        assertThat(cache.get(ORG, StateQueryCache.REAL_ESTATE, "R0", () -> load(loads, "reloaded")).join()).isEqualTo("v");
+        assertThat(cache.get(ORG, StateQueryCache.REAL_ESTATE, "R1", () -> load(loads, "reloaded")).join()).isEqualTo("reloaded");
+    }
+
+    private StateQueryCache cache(int capacity) {
+        AppProperties appProperties = mock(AppProperties.class);
+        when(appProperties.queryCacheEnabled()).thenReturn(true);
+        when(appProperties.queryCacheSize()).thenReturn(capacity);
+        when(appProperties.queryCacheTtlSeconds()).thenReturn(30);
+        when(appProperties.readModelMaxStalenessSeconds()).thenReturn(5);
+        FabricProperties fabricProperties = mock(FabricProperties.class);
+        when(fabricProperties.chaincodeName()).thenReturn(CHAINCODE);
+        when(fabricProperties.channelName()).thenReturn(LEDGER);
+        BlockLedgerResolver ledgerResolver = mock(BlockLedgerResolver.class);
+        when(ledgerResolver.ledgerKey(anyString())).thenReturn(LEDGER);
+        BlockListenerManager listenerManager = mock(BlockListenerManager.class);
+        when(listenerManager.isFresh(anyString(), any(Duration.class))).thenReturn(true);
+        return new StateQueryCache(appProperties, fabricProperties, ledgerResolver, listenerManager,
+                readModel, fabricClient, meterRegistry);
+    }
+
+    private static CompletableFuture<Object> load(AtomicInteger loads, Object value) {
+        loads.incrementAndGet();
+        return CompletableFuture.completedFuture(value);
+    }
+
+    private static IngestedBlock blockWriting(String compositeKey) {
+        StateWrite write = new StateWrite(CHAINCODE, compositeKey, false, new byte[0]);
+        BlockTransactionRecord tx = new BlockTransactionRecord("tx-1", 7, 0, CHAINCODE, "UpdateRealEstate", "VALID", null, List.of(write));
+        return new IngestedBlock(new BlockRecord(7, "", "", "", 1, null), List.of(tx), null);
+    }
+}